@@ -1,11 +1,35 @@
 package analyzer;
 
 import analyzer.ast.*;
+import analyzer.ir.BinaryCodeReader;
+import analyzer.ir.BinaryCodeWriter;
+import analyzer.ir.SymbolTable;
+import analyzer.opt.AlgebraicSimplification;
+import analyzer.opt.ConstantPropagation;
+import analyzer.opt.CopyPropagation;
+import analyzer.opt.GlobalValueNumbering;
+import analyzer.opt.Pass;
+import analyzer.opt.SsaConstruction;
+import analyzer.regalloc.GraphColoringAllocator;
+import analyzer.regalloc.LinearScanAllocator;
+import analyzer.regalloc.RegisterAllocator;
 import analyzer.visitors.AvailableExpressionVisitor;
+import analyzer.visitors.CodeVisitor;
+import analyzer.visitors.LivenessVisitor;
+import analyzer.visitors.PrintMachineCodeVisitor;
+import analyzer.visitors.ReachingDefinitionsVisitor;
+import analyzer.visitors.RegisterAllocationVisitor;
 
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created: 17-08-02
@@ -21,37 +45,145 @@ public class Main {
     // It is the entry point of the programs
     // The arguments are:
     // arg[0] (Required): The path of the input file to parse
-    // arg[1] (Optional): The path of the output file, will print to System.out if missing.
+    // The options may follow in any order:
+    // --visitor=<name>     : available (default), reaching, liveness, allocation or machine-code
+    // --allocator=<name>   : coloring (default) or linear-scan, implies --visitor=allocation.
+    //                        Linear scan never builds the interference graph, use it for huge inputs.
+    // --stream             : reads the program without building its tree, use it for huge inputs.
+    // --save=<file.cib>    : writes the program precompiled to a .cib file instead of analyzing it.
+    // --optimize=<passes>  : rewrites the code with the passes, separated by commas, before the visitor analyses it.
+    //                        The passes are: constants, copies, ssa, gvn, simplify.
+    // --recover            : skips the malformed statements and analyzes the rest of the program,
+    //                        their errors are printed on the error output.
+    // The input file is mapped in memory and read by MappedCharStream.open(), unless it is a .cib file:
+    // it is then replayed to the visitor without being parsed.
     public static void main(String[] args) {
         if(args.length <= 0) {
             System.err.println("args[0] is missing! (The file to read)");
             return;
         }
 
-        InputStream file;
+        String visitorName = "available";
+        boolean stream = false;
+        String save = null;
+        List<Diagnostic> diagnostics = null;
+        RegisterAllocator allocator = new GraphColoringAllocator();
+        List<Pass> passes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--visitor=")) {
+                visitorName = args[i].substring("--visitor=".length());
+            } else if (args[i].equals("--allocator=coloring")) {
+                visitorName = "allocation";
+                allocator = new GraphColoringAllocator();
+            } else if (args[i].equals("--allocator=linear-scan")) {
+                visitorName = "allocation";
+                allocator = new LinearScanAllocator();
+            } else if (args[i].equals("--stream")) {
+                stream = true;
+            } else if (args[i].equals("--recover")) {
+                diagnostics = new ArrayList<>();
+            } else if (args[i].startsWith("--optimize=")) {
+                for (String name : args[i].substring("--optimize=".length()).split(",")) {
+                    Pass pass = passOf(name);
+                    if (pass == null) {
+                        System.err.println("Unknown pass: " + name);
+                        return;
+                    }
+                    passes.add(pass);
+                }
+            } else if (args[i].startsWith("--save=")) {
+                save = args[i].substring("--save=".length());
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
+
+        boolean binary = args[0].endsWith(".cib");
+        if (binary && save != null) {
+            System.err.println("The input is already a .cib file");
+            return;
+        }
+
+        CharStream file = null;
         try {
-            file = new java.io.FileInputStream(args[0]);
-        } catch (FileNotFoundException e) {
+            if (!binary) {
+                file = MappedCharStream.open(args[0]);
+            }
+            if (save != null) {
+                Save(file, new FileOutputStream(save));
+                return;
+            }
+        } catch (IOException | ParseException e) {
             e.printStackTrace();
             return;
         }
 
-        // For this test we are using the print visitor, but you can change this
-        // to whatever you want.
         PrintWriter pw = new PrintWriter(System.out);
+        CodeVisitor visitor;
+        switch (visitorName) {
+            case "available": visitor = new AvailableExpressionVisitor(pw); break;
+            case "reaching": visitor = new ReachingDefinitionsVisitor(pw); break;
+            case "liveness": visitor = new LivenessVisitor(pw); break;
+            case "allocation": visitor = new RegisterAllocationVisitor(pw, allocator); break;
+            case "machine-code": visitor = new PrintMachineCodeVisitor(pw); break;
+            default:
+                System.err.println("Unknown visitor: " + visitorName);
+                return;
+        }
+        for (Pass pass : passes) {
+            visitor.addPass(pass);
+        }
+
         try {
-            Run(new AvailableExpressionVisitor(pw), file, pw);
-        } catch (ParseException e) {
+            if (binary) {
+                Load(visitor, Paths.get(args[0]), pw);
+            } else if (stream) {
+                Stream(visitor, file, pw, diagnostics);
+            } else {
+                Run(visitor, file, pw, diagnostics);
+            }
+        } catch (ParseException | IOException e) {
             e.printStackTrace();
         }
+
+        if (diagnostics != null) {
+            for (Diagnostic diagnostic : diagnostics) {
+                System.err.println(args[0] + ": " + diagnostic);
+            }
+        }
+    }
+
+    private static Pass passOf(String name) {
+        switch (name) {
+            case "constants": return new ConstantPropagation();
+            case "copies": return new CopyPropagation();
+            case "ssa": return new SsaConstruction();
+            case "gvn": return new GlobalValueNumbering();
+            case "simplify": return new AlgebraicSimplification();
+            default: return null;
+        }
     }
 
     // This is the main function of the program, it is used by main and it is used
     // by the test cases.
+    // The InputStream is read by the char stream the parser of the thread keeps, so a batch of inputs builds it once
     public static void Run(ParserVisitor visitor, InputStream input, PrintWriter output) throws ParseException {
+        ASTProgram root = Parser.ParseTree(input, new SymbolTable());
+        root.jjtAccept(visitor, null);
+        output.flush();
+    }
+
+    public static void Run(ParserVisitor visitor, CharStream input, PrintWriter output) throws ParseException {
+        Run(visitor, input, output, null);
+    }
+
+    // With a list of diagnostics, the parser skips the malformed statements and adds their errors to the list
+    public static void Run(ParserVisitor visitor, CharStream input, PrintWriter output, List<Diagnostic> diagnostics)
+            throws ParseException {
 
         // This line ask the parser built from the jjt file to read & parse the input file
-        ASTProgram root = Parser.ParseTree(input);
+        ASTProgram root = Parser.ParseTree(input, new SymbolTable(), diagnostics);
 
         // After this we pass the visitor to the root of the parsed tree
         root.jjtAccept(visitor, null);
@@ -59,4 +191,38 @@ public class Main {
         // If the visitor has printed in the output, make sure everything is flushed
         output.flush();
     }
+
+    // Same as Run, but the parser pushes every statement to the visitor as it reads it, no tree is built.
+    public static void Stream(CodeVisitor visitor, InputStream input, PrintWriter output) throws ParseException {
+        Parser.ParseCode(input, visitor);
+        output.flush();
+    }
+
+    public static void Stream(CodeVisitor visitor, CharStream input, PrintWriter output) throws ParseException {
+        Stream(visitor, input, output, null);
+    }
+
+    public static void Stream(CodeVisitor visitor, CharStream input, PrintWriter output, List<Diagnostic> diagnostics)
+            throws ParseException {
+        Parser.ParseCode(input, visitor, diagnostics);
+        output.flush();
+    }
+
+    // Parses the program and writes it precompiled to a .cib file, see BinaryCodeWriter
+    public static void Save(CharStream input, OutputStream output) throws ParseException, IOException {
+        try (OutputStream out = output) {
+            Parser.ParseCode(input, new BinaryCodeWriter(out));
+        }
+    }
+
+    // Same as Stream, but the program is replayed from a .cib file instead of being parsed
+    public static void Load(CodeVisitor visitor, Path input, PrintWriter output) throws IOException {
+        BinaryCodeReader.read(input, visitor);
+        output.flush();
+    }
+
+    public static void Load(CodeVisitor visitor, ReadableByteChannel input, PrintWriter output) throws IOException {
+        BinaryCodeReader.read(input, visitor);
+        output.flush();
+    }
 }
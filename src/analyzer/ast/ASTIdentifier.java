@@ -1,6 +1,8 @@
 /* Generated By:JJTree: Do not edit this line. ASTIdentifier.java */
 package analyzer.ast;
 
+import analyzer.ir.SymbolTable;
+
 public class ASTIdentifier extends SimpleNode {
   public ASTIdentifier(int id) {
     super(id);
@@ -18,14 +20,20 @@ public class ASTIdentifier extends SimpleNode {
 
   // PLB
   private String value = null;
-  public void setValue(String v) { value = v; }
+  private int symbol = SymbolTable.NONE;
+  private boolean temporary = false;
+  public void setValue(String v) { value = v; temporary = SymbolTable.isTemporaryName(v); }
   public String getValue() { return value; }
 
-  public boolean isTemporary() {
-    if(value.length() < 2 || value.charAt(0) != 't')
-      return false;
+  // The number of the identifier in the symbol table of the program, NONE for a node built outside the parser
+  public void setSymbol(SymbolTable symbols, int s) {
+    symbol = s;
+    value = symbols.name(s);
+    temporary = symbols.isTemporary(s);
+  }
+  public int getSymbol() { return symbol; }
 
-    String number = value.substring(1);
-    return number.matches("[0-9]+");
+  public boolean isTemporary() {
+    return temporary;
   }
 }
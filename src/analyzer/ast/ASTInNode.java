@@ -1,7 +1,8 @@
 /* Generated By:JJTree: Do not edit this line. ASTIntValue.java */
 package analyzer.ast;
 
-import java.util.Vector;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ASTInNode extends SimpleNode {
   public ASTInNode(int id) {
@@ -23,7 +24,7 @@ public class ASTInNode extends SimpleNode {
     return ((ASTIntValue)this.jjtGetChild(0)).getValue();
   }
 
-  private Vector<String> m_lives = null;
-  public void addLive(String var) { if(m_lives == null) m_lives = new Vector<String>(); m_lives.add(var); }
-  public Vector<String> getLive() { return m_lives; }
+  private final List<String> m_lives = new ArrayList<String>();
+  public void addLive(String var) { m_lives.add(var); }
+  public List<String> getLive() { return m_lives; }
 }
@@ -1,6 +1,8 @@
 /* Generated By:JJTree: Do not edit this line. ASTIntValue.java */
 package analyzer.ast;
 
+import analyzer.ir.SymbolTable;
+
 public class ASTIntValue extends SimpleNode {
   public ASTIntValue(int id) {
     super(id);
@@ -20,4 +22,9 @@ public class ASTIntValue extends SimpleNode {
   private int value = 0;
   public void setValue(int v) { value = v; }
   public int getValue() { return value; }
+
+  // The number of the constant in the symbol table of the program, only set for the operands of the code
+  private int symbol = SymbolTable.NONE;
+  public void setSymbol(int s) { symbol = s; }
+  public int getSymbol() { return symbol; }
 }
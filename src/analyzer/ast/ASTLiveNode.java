@@ -1,8 +1,6 @@
 /* Generated By:JJTree: Do not edit this line. ASTIntValue.java */
 package analyzer.ast;
 
-import java.util.Vector;
-
 public class ASTLiveNode extends SimpleNode {
   public ASTLiveNode(int id) {
     super(id);
@@ -0,0 +1,25 @@
+/* Generated By:JJTree: Do not edit this line. ASTProgram.java */
+package analyzer.ast;
+
+import analyzer.ir.SymbolTable;
+
+public class ASTProgram extends SimpleNode {
+  public ASTProgram(int id) {
+    super(id);
+  }
+
+  public ASTProgram(Parser p, int id) {
+    super(p, id);
+  }
+
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(ParserVisitor visitor, Object data) {
+    return visitor.visit(this, data);
+  }
+
+  // The identifiers and constants interned while the program was parsed
+  private SymbolTable symbols = new SymbolTable();
+  public void setSymbols(SymbolTable s) { symbols = s; }
+  public SymbolTable getSymbols() { return symbols; }
+}
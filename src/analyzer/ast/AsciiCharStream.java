@@ -0,0 +1,270 @@
+package analyzer.ast;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A CharStream scanning the raw bytes of a source that is pure ASCII and has no backslash, so no character needs
+ * to be decoded and no unicode escape can appear. The bytes are copied in bulk from the source buffer into a byte
+ * window, where the token manager reads them directly: backup only moves the position back, and the lines and
+ * columns are only counted for the positions the token manager asks for, with the same rules as JavaCharStream.
+ * MappedCharStream.open() chooses this stream when the mapped file allows it.
+ */
+public class AsciiCharStream implements CharStream {
+    private final ByteBuffer m_source;
+    private final int m_limit;
+
+    // The bytes from m_windowStart to m_windowEnd, the ones before the current token are dropped as it is filled
+    private byte[] m_window = new byte[1 << 16];
+    private int m_windowStart = 0;
+    private int m_windowEnd = 0;
+    private final String[] m_images = new String[4096];
+
+    // The next character to read, the last one read is at m_next - 1 like bufpos in JavaCharStream
+    private int m_next = 0;
+    private int m_tokenBegin = 0;
+
+    private int m_tabSize = 1;
+    // Only the backslashes depend on it in JavaCharStream, and there are none here
+    private boolean m_trackLineColumn = true;
+
+    // The line and column of the character before m_scanned, the characters before it were all counted.
+    // The token manager asks for positions that never go back, so they are counted once.
+    private int m_scanned = 0;
+    private int m_line = 1;
+    private int m_column = 0;
+    private boolean m_prevCharIsCR = false;
+    private boolean m_prevCharIsLF = false;
+
+    // The position of the token begin, computed once per token
+    private int m_beginOf = -1;
+    private int m_beginLine;
+    private int m_beginColumn;
+
+    /**
+     * Reads the bytes from the position to the limit of the buffer, which must be accepted.
+     */
+    public AsciiCharStream(ByteBuffer source) {
+        m_source = source.slice();
+        m_limit = m_source.limit();
+    }
+
+    /**
+     * True if the bytes can be read by an AsciiCharStream: none of them is a backslash or outside ASCII.
+     * The bytes are tested eight at a time.
+     */
+    public static boolean accepts(ByteBuffer bytes) {
+        int limit = bytes.limit();
+        int i = 0;
+        for (; i + 8 <= limit; i += 8) {
+            long word = bytes.getLong(i);
+            // A byte of word ^ BACKSLASHES is zero where word has a backslash
+            long backslashes = word ^ 0x5C5C5C5C5C5C5C5CL;
+            long zero = (backslashes - 0x0101010101010101L) & ~backslashes;
+            if (((word | zero) & 0x8080808080808080L) != 0) return false;
+        }
+        for (; i < limit; i++) {
+            byte b = bytes.get(i);
+            if (b < 0 || b == '\\') return false;
+        }
+        return true;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        if (m_next == m_windowEnd) {
+            fill();
+        }
+        return (char) m_window[m_next++ - m_windowStart];
+    }
+
+    // Drops the bytes before the current token and reads the next ones
+    private void fill() throws IOException {
+        if (m_windowEnd == m_limit) {
+            throw new IOException();
+        }
+
+        scanTo(m_tokenBegin - 1);
+        int kept = m_windowEnd - m_tokenBegin;
+        if (kept == m_window.length) {
+            m_window = Arrays.copyOf(m_window, m_window.length * 2);
+        } else {
+            System.arraycopy(m_window, m_tokenBegin - m_windowStart, m_window, 0, kept);
+        }
+        m_windowStart = m_tokenBegin;
+
+        int count = Math.min(m_window.length - kept, m_limit - m_windowEnd);
+        m_source.get(m_window, kept, count);
+        m_windowEnd += count;
+    }
+
+    @Override
+    public char BeginToken() throws IOException {
+        m_tokenBegin = m_next;
+        return readChar();
+    }
+
+    @Override
+    public void backup(int amount) {
+        m_next -= amount;
+    }
+
+    // The identifiers, numbers and operators of a program repeat a lot, so the short images are shared
+    // instead of being built again for every token
+    @Override
+    public String GetImage() {
+        int offset = m_tokenBegin - m_windowStart;
+        int length = m_next - m_tokenBegin;
+        if (length > 16) {
+            return new String(m_window, offset, length, StandardCharsets.ISO_8859_1);
+        }
+
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = hash * 31 + m_window[offset + i];
+        }
+        int slot = (hash ^ (hash >>> 12)) & (m_images.length - 1);
+        String image = m_images[slot];
+        if (image == null || !matches(image, offset, length)) {
+            image = new String(m_window, offset, length, StandardCharsets.ISO_8859_1);
+            m_images[slot] = image;
+        }
+        return image;
+    }
+
+    private boolean matches(String image, int offset, int length) {
+        if (image.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (image.charAt(i) != m_window[offset + i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public char[] GetSuffix(int len) {
+        char[] suffix = new char[len];
+        for (int i = 0; i < len; i++) {
+            suffix[i] = (char) m_window[m_next - len + i - m_windowStart];
+        }
+        return suffix;
+    }
+
+    @Override
+    public void Done() {
+        m_window = null;
+    }
+
+    @Override
+    @Deprecated
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    @Override
+    @Deprecated
+    public int getLine() {
+        return getEndLine();
+    }
+
+    @Override
+    public int getEndColumn() {
+        scanTo(m_next - 1);
+        return m_column;
+    }
+
+    @Override
+    public int getEndLine() {
+        scanTo(m_next - 1);
+        return m_line;
+    }
+
+    @Override
+    public int getBeginColumn() {
+        scanBegin();
+        return m_beginColumn;
+    }
+
+    @Override
+    public int getBeginLine() {
+        scanBegin();
+        return m_beginLine;
+    }
+
+    private void scanBegin() {
+        if (m_beginOf != m_tokenBegin) {
+            scanTo(m_tokenBegin);
+            m_beginOf = m_tokenBegin;
+            m_beginLine = m_line;
+            m_beginColumn = m_column;
+        }
+    }
+
+    // Counts the lines and the columns up to the character at position. A token at the end of the input
+    // is placed on the last character, as JavaCharStream does.
+    private void scanTo(int position) {
+        int end = Math.min(position + 1, m_limit);
+        for (; m_scanned < end; m_scanned++) {
+            byte c = m_window[m_scanned - m_windowStart];
+            if (c > '\r' && !m_prevCharIsCR && !m_prevCharIsLF) {
+                // Neither a line terminator nor a tab, and no line starts here
+                m_column++;
+            } else {
+                updateLineColumn((char) c);
+            }
+        }
+    }
+
+    // The same rules as JavaCharStream.UpdateLineColumn()
+    private void updateLineColumn(char c) {
+        m_column++;
+
+        if (m_prevCharIsLF) {
+            m_prevCharIsLF = false;
+            m_line += (m_column = 1);
+        } else if (m_prevCharIsCR) {
+            m_prevCharIsCR = false;
+            if (c == '\n') {
+                m_prevCharIsLF = true;
+            } else {
+                m_line += (m_column = 1);
+            }
+        }
+
+        switch (c) {
+            case '\r':
+                m_prevCharIsCR = true;
+                break;
+            case '\n':
+                m_prevCharIsLF = true;
+                break;
+            case '\t':
+                m_column--;
+                m_column += (m_tabSize - (m_column % m_tabSize));
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void setTabSize(int i) {
+        m_tabSize = i;
+    }
+
+    @Override
+    public int getTabSize() {
+        return m_tabSize;
+    }
+
+    @Override
+    public boolean getTrackLineColumn() {
+        return m_trackLineColumn;
+    }
+
+    @Override
+    public void setTrackLineColumn(boolean trackLineColumn) {
+        m_trackLineColumn = trackLineColumn;
+    }
+}
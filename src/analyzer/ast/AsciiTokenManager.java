@@ -0,0 +1,119 @@
+package analyzer.ast;
+
+import java.io.IOException;
+
+/**
+ * A hand-rolled token manager for the sources read by an AsciiCharStream. The identifiers, keywords, integers and
+ * operators that make up nearly all of a program are recognized by a plain switch over the characters instead of
+ * the generated automaton. Everything else (comments, the literals ending with ":" or holding a space, lexical
+ * errors and the end of the input) is given back to the generated ParserTokenManager from the start of the token,
+ * so the tokens, their positions and the errors are exactly the same.
+ */
+public class AsciiTokenManager extends ParserTokenManager {
+
+    public AsciiTokenManager(AsciiCharStream stream) {
+        super(stream);
+    }
+
+    @Override
+    public Token getNextToken() {
+        char c;
+        try {
+            do {
+                c = input_stream.BeginToken();
+            } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        } catch (IOException e) {
+            return super.getNextToken();
+        }
+
+        switch (c) {
+            case '=':
+                return token(ASSIGN, null);
+            case '+':
+            case '-':
+            case '*':
+                return token(OPERATOR, null);
+            case ',':
+                return token(COMMA, jjstrLiteralImages[COMMA]);
+            case '/':
+                int next = read();
+                if (next == '/' || next == '*') {
+                    input_stream.backup(2);
+                    return super.getNextToken();
+                }
+                unread(next);
+                return token(OPERATOR, null);
+            case '0':
+                return token(INTEGER, null);
+            default:
+                break;
+        }
+
+        if (c >= '1' && c <= '9') {
+            int next = read();
+            while (next >= '0' && next <= '9') {
+                next = read();
+            }
+            unread(next);
+            return token(INTEGER, null);
+        }
+
+        if (isLetter(c)) {
+            int length = 1;
+            int next = read();
+            while (isLetter(next) || (next >= '0' && next <= '9')) {
+                length++;
+                next = read();
+            }
+            unread(next);
+            // IN:, OUT: and NUMBER_OF_REGISTER_AVAILABLE: or the "LIVE --->" of the LIVE section
+            if (next == ':' || (length == 4 && input_stream.GetImage().equals("LIVE"))) {
+                input_stream.backup(length);
+                return super.getNextToken();
+            }
+
+            String image = input_stream.GetImage();
+            switch (image) {
+                case "NODE": return token(NODE, jjstrLiteralImages[NODE]);
+                case "return": return token(RETURN, jjstrLiteralImages[RETURN]);
+                case "minus": return token(UNARY_MINUS, jjstrLiteralImages[UNARY_MINUS]);
+                default: return token(IDENTIFIER, image);
+            }
+        }
+
+        input_stream.backup(1);
+        return super.getNextToken();
+    }
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    // Reads the next character, or -1 at the end of the input
+    private int read() {
+        try {
+            return input_stream.readChar();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Gives back the character read after the end of the token
+    private void unread(int c) {
+        if (c != -1) {
+            input_stream.backup(1);
+        }
+    }
+
+    // Same as jjFillToken(), the image is the one of the stream when the kind has no literal image
+    private Token token(int kind, String image) {
+        Token t = Token.newToken(kind);
+        t.kind = kind;
+        t.image = image != null ? image : input_stream.GetImage();
+        t.beginLine = input_stream.getBeginLine();
+        t.beginColumn = input_stream.getBeginColumn();
+        t.endLine = input_stream.getEndLine();
+        t.endColumn = input_stream.getEndColumn();
+        return t;
+    }
+}
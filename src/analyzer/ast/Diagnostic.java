@@ -0,0 +1,54 @@
+package analyzer.ast;
+
+/**
+ * An error the parser recovered from: the statement holding it was skipped and the parse went on with the next one.
+ */
+public class Diagnostic {
+    public final int line;
+    public final int column;
+    public final String message;
+
+    public Diagnostic(int line, int column, String message) {
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    // The position is the one of the token the parser could not go on with, the same in both parse modes since
+    // they read a statement the same way. Without expected tokens, the message only names that token.
+    static Diagnostic of(ParseException e) {
+        Token token = e.currentToken.next != null ? e.currentToken.next : e.currentToken;
+        String message;
+        if (e.expectedTokenSequences != null && e.expectedTokenSequences.length > 0) {
+            message = withoutPosition(firstLine(e.getMessage()));
+        } else if (token.kind == ParserConstants.EOF) {
+            message = "Malformed statement at the end of the input";
+        } else {
+            message = "Malformed statement at \"" + token.image + "\"";
+        }
+        return new Diagnostic(token.beginLine, token.beginColumn, message);
+    }
+
+    // The message of a lexical error gives the position right after "Lexical error", it is the one of the diagnostic
+    static Diagnostic of(TokenMgrError e) {
+        String message = firstLine(e.getMessage()).replaceFirst(" at line \\d+, column \\d+\\.\\s*", ": ");
+        return new Diagnostic(e.errorLine, e.errorColumn, message);
+    }
+
+    // The messages of JavaCC go on with the list of the expected tokens, one per line
+    private static String firstLine(String message) {
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    // The position ending the message is already the one of the diagnostic
+    private static String withoutPosition(String message) {
+        int end = message.lastIndexOf(" at line ");
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    @Override
+    public String toString() {
+        return "line " + line + ", column " + column + ": " + message;
+    }
+}
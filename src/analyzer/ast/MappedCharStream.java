@@ -0,0 +1,133 @@
+package analyzer.ast;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A JavaCharStream reading a file mapped in memory. The characters are decoded from the mapped bytes straight into
+ * the token buffer, without the Reader of the JavaCharStream, its locks and its intermediate buffers.
+ * The file is read as UTF-8 and mapped by segments, so it may be larger than what a single mapping can hold.
+ */
+public class MappedCharStream extends JavaCharStream {
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final MappedByteBuffer[] m_segments;
+    private MappedByteBuffer m_bytes;
+    private int m_segment = 0;
+    // The low surrogate of a character outside the BMP, returned by the next read
+    private char m_pending = 0;
+
+    public MappedCharStream(Path path) throws IOException {
+        this(map(path));
+    }
+
+    public MappedCharStream(String path) throws IOException {
+        this(Paths.get(path));
+    }
+
+    private MappedCharStream(MappedByteBuffer[] segments) {
+        super((Reader) null, 1, 1, 4096);
+        m_segments = segments;
+        m_bytes = m_segments[0];
+    }
+
+    /**
+     * Maps the file and returns the stream to read it with: an AsciiCharStream scanning the mapped bytes when the
+     * file fits in one segment and is pure ASCII without any backslash, else a MappedCharStream.
+     */
+    public static CharStream open(Path path) throws IOException {
+        MappedByteBuffer[] segments = map(path);
+        if (segments.length == 1 && AsciiCharStream.accepts(segments[0])) {
+            return new AsciiCharStream(segments[0]);
+        }
+        return new MappedCharStream(segments);
+    }
+
+    public static CharStream open(String path) throws IOException {
+        return open(Paths.get(path));
+    }
+
+    private static MappedByteBuffer[] map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mappings stay valid once the channel is closed
+            long size = channel.size();
+            int count = (int) Math.max(1, (size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+            }
+            return segments;
+        }
+    }
+
+    @Override
+    protected char ReadByte() throws IOException {
+        if (m_pending != 0) {
+            char c = m_pending;
+            m_pending = 0;
+            return c;
+        }
+
+        if (!m_bytes.hasRemaining() && !nextSegment()) {
+            // Same as the end of the Reader in JavaCharStream.FillBuff()
+            if (bufpos != 0) {
+                --bufpos;
+                backup(0);
+            } else {
+                bufline[bufpos] = line;
+                bufcolumn[bufpos] = column;
+            }
+            throw new IOException();
+        }
+
+        byte b = m_bytes.get();
+        return b >= 0 ? (char) b : decode(b & 0xFF);
+    }
+
+    private boolean nextSegment() {
+        while (!m_bytes.hasRemaining()) {
+            if (m_segment + 1 == m_segments.length) return false;
+            m_bytes = m_segments[++m_segment];
+        }
+        return true;
+    }
+
+    // Decodes the rest of a multi-byte UTF-8 sequence, a malformed one is read as the replacement character
+    private char decode(int lead) {
+        int count;
+        int codePoint;
+        if ((lead & 0xE0) == 0xC0) {
+            count = 1;
+            codePoint = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            count = 2;
+            codePoint = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            count = 3;
+            codePoint = lead & 0x07;
+        } else {
+            return REPLACEMENT;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (!m_bytes.hasRemaining() && !nextSegment()) return REPLACEMENT;
+            int b = m_bytes.get(m_bytes.position()) & 0xFF;
+            if ((b & 0xC0) != 0x80) return REPLACEMENT;
+            m_bytes.get();
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+
+        if (Character.isSupplementaryCodePoint(codePoint)) {
+            m_pending = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+        return (char) codePoint;
+    }
+}
@@ -0,0 +1,158 @@
+package analyzer.dataflow;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size set of small integers stored as dense 64-bit words.
+ * It is the value used by the data-flow analyses: every set operation works one word at a time,
+ * so the transfer function of a line costs a handful of AND/OR/ANDNOT instructions.
+ */
+public class BitVector {
+    private static final int WORD_SHIFT = 6;
+
+    private final long[] words;
+    private final int size;
+
+    public BitVector(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> WORD_SHIFT];
+    }
+
+    public BitVector(BitVector other) {
+        this.size = other.size;
+        this.words = other.words.clone();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        words[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        words[index >>> WORD_SHIFT] &= ~(1L << index);
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    public void setAll() {
+        Arrays.fill(words, -1L);
+        if ((size & 63) != 0) {
+            words[words.length - 1] = -1L >>> (64 - (size & 63));
+        }
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the first index set at or after from, or -1 if there is none.
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) return -1;
+        int w = from >>> WORD_SHIFT;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+            if (++w == words.length) return -1;
+            word = words[w];
+        }
+    }
+
+    public void copy(BitVector other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    public void or(BitVector other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public void and(BitVector other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    public void andNot(BitVector other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /**
+     * Returns true if every index of other is also set in this vector.
+     */
+    public boolean containsAll(BitVector other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((other.words[i] & ~words[i]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes this = gen | (in & ~kill) and returns true if the vector changed.
+     */
+    public boolean transfer(BitVector in, BitVector gen, BitVector kill) {
+        boolean changed = false;
+        for (int i = 0; i < words.length; i++) {
+            long word = gen.words[i] | (in.words[i] & ~kill.words[i]);
+            if (word != words[i]) {
+                words[i] = word;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Computes this = {gen} | (in & ~kill) and returns true if the vector changed.
+     */
+    public boolean transfer(BitVector in, int gen, BitVector kill) {
+        boolean changed = false;
+        int genWord = gen >>> WORD_SHIFT;
+        for (int i = 0; i < words.length; i++) {
+            long word = in.words[i] & ~kill.words[i];
+            if (i == genWord) word |= 1L << gen;
+            if (word != words[i]) {
+                words[i] = word;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof BitVector)) return false;
+        BitVector other = (BitVector) obj;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,42 @@
+package analyzer.dataflow;
+
+/**
+ * The equations of a data-flow analysis over bit vectors, solved by a DataflowSolver.
+ * An analysis picks its direction, its meet operator and the size of its universe, then gives its transfer function.
+ */
+public abstract class DataflowProblem {
+    private final Direction m_direction;
+    private final Meet m_meet;
+    private final int m_universeSize;
+
+    protected DataflowProblem(Direction direction, Meet meet, int universeSize) {
+        m_direction = direction;
+        m_meet = meet;
+        m_universeSize = universeSize;
+    }
+
+    public Direction getDirection() {
+        return m_direction;
+    }
+
+    public Meet getMeet() {
+        return m_meet;
+    }
+
+    public int getUniverseSize() {
+        return m_universeSize;
+    }
+
+    /**
+     * Fills the value entering the nodes without predecessor in the direction of the analysis (empty by default).
+     */
+    public void boundary(BitVector value) {
+        value.clear();
+    }
+
+    /**
+     * Computes output = f(input) for node and returns true if output changed.
+     * The input is the IN of a forward analysis and the OUT of a backward one.
+     */
+    public abstract boolean transfer(int node, BitVector input, BitVector output);
+}
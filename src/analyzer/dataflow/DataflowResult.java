@@ -0,0 +1,26 @@
+package analyzer.dataflow;
+
+/**
+ * The IN and OUT of every node once a DataflowProblem is solved, in program order whatever the direction.
+ */
+public class DataflowResult {
+    private final BitVector[] m_in;
+    private final BitVector[] m_out;
+
+    DataflowResult(BitVector[] in, BitVector[] out) {
+        m_in = in;
+        m_out = out;
+    }
+
+    public int size() {
+        return m_in.length;
+    }
+
+    public BitVector in(int node) {
+        return m_in[node];
+    }
+
+    public BitVector out(int node) {
+        return m_out[node];
+    }
+}
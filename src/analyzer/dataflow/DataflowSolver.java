@@ -0,0 +1,131 @@
+package analyzer.dataflow;
+
+/**
+ * Solves any DataflowProblem over a FlowGraph and counts the work it performs.
+ * The worklist strategy only re-evaluates the successors of a node whose output changed, while the round-robin
+ * strategy re-evaluates every node until a whole pass makes no change.
+ */
+public class DataflowSolver {
+    public enum Strategy { WORKLIST, ROUND_ROBIN }
+
+    private final Strategy m_strategy;
+    private long m_evaluations = 0;
+    private long m_passes = 0;
+
+    public DataflowSolver() {
+        this(Strategy.WORKLIST);
+    }
+
+    public DataflowSolver(Strategy strategy) {
+        m_strategy = strategy;
+    }
+
+    public Strategy getStrategy() {
+        return m_strategy;
+    }
+
+    /**
+     * The number of transfer functions evaluated since the creation of the solver.
+     */
+    public long getEvaluations() {
+        return m_evaluations;
+    }
+
+    /**
+     * The number of passes over all the nodes, only counted by the round-robin strategy.
+     */
+    public long getPasses() {
+        return m_passes;
+    }
+
+    public DataflowResult solve(DataflowProblem problem, FlowGraph graph) {
+        int size = graph.size();
+        boolean forward = problem.getDirection() == Direction.FORWARD;
+
+        // input and output follow the direction of the analysis, they are swapped back in the result
+        BitVector[] input = new BitVector[size];
+        BitVector[] output = new BitVector[size];
+        BitVector boundary = new BitVector(problem.getUniverseSize());
+        problem.boundary(boundary);
+        for (int node = 0; node < size; node++) {
+            input[node] = new BitVector(problem.getUniverseSize());
+            output[node] = new BitVector(problem.getUniverseSize());
+            problem.getMeet().top(output[node]);
+            if (predecessorCount(graph, forward, node) == 0) {
+                input[node].copy(boundary);
+            }
+        }
+
+        if (m_strategy == Strategy.ROUND_ROBIN) {
+            solveRoundRobin(problem, graph, forward, input, output);
+        } else {
+            solveWorklist(problem, graph, forward, input, output);
+        }
+        return forward ? new DataflowResult(input, output) : new DataflowResult(output, input);
+    }
+
+    private void solveWorklist(DataflowProblem problem, FlowGraph graph, boolean forward,
+                               BitVector[] input, BitVector[] output) {
+        int size = graph.size();
+        Worklist worklist = new Worklist(size);
+        for (int i = 0; i < size; i++) {
+            worklist.add(forward ? i : size - 1 - i);
+        }
+        while (!worklist.isEmpty()) {
+            int node = worklist.remove();
+            meet(problem, graph, forward, node, input, output);
+            m_evaluations++;
+            if (problem.transfer(node, input[node], output[node])) {
+                for (int i = 0; i < successorCount(graph, forward, node); i++) {
+                    worklist.add(successor(graph, forward, node, i));
+                }
+            }
+        }
+    }
+
+    private void solveRoundRobin(DataflowProblem problem, FlowGraph graph, boolean forward,
+                                 BitVector[] input, BitVector[] output) {
+        int size = graph.size();
+        boolean changes = true;
+        while (changes) {
+            changes = false;
+            m_passes++;
+            for (int i = 0; i < size; i++) {
+                int node = forward ? i : size - 1 - i;
+                meet(problem, graph, forward, node, input, output);
+                m_evaluations++;
+                changes |= problem.transfer(node, input[node], output[node]);
+            }
+        }
+    }
+
+    // Recomputes the input of node by applying the meet operator to the output of its predecessors
+    private void meet(DataflowProblem problem, FlowGraph graph, boolean forward, int node,
+                      BitVector[] input, BitVector[] output) {
+        int count = predecessorCount(graph, forward, node);
+        if (count == 0) return;
+
+        input[node].copy(output[predecessor(graph, forward, node, 0)]);
+        for (int i = 1; i < count; i++) {
+            problem.getMeet().apply(input[node], output[predecessor(graph, forward, node, i)]);
+        }
+    }
+
+    // The predecessors and successors below are taken in the direction of the analysis
+
+    private static int predecessorCount(FlowGraph graph, boolean forward, int node) {
+        return forward ? graph.predecessorCount(node) : graph.successorCount(node);
+    }
+
+    private static int predecessor(FlowGraph graph, boolean forward, int node, int i) {
+        return forward ? graph.predecessor(node, i) : graph.successor(node, i);
+    }
+
+    private static int successorCount(FlowGraph graph, boolean forward, int node) {
+        return forward ? graph.successorCount(node) : graph.predecessorCount(node);
+    }
+
+    private static int successor(FlowGraph graph, boolean forward, int node, int i) {
+        return forward ? graph.successor(node, i) : graph.predecessor(node, i);
+    }
+}
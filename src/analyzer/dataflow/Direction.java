@@ -0,0 +1,11 @@
+package analyzer.dataflow;
+
+/**
+ * The direction in which the values of an analysis flow through the graph.
+ */
+public enum Direction {
+    /** From the entry to the exit, the transfer function maps IN to OUT. */
+    FORWARD,
+    /** From the exit to the entry, the transfer function maps OUT to IN. */
+    BACKWARD
+}
@@ -0,0 +1,17 @@
+package analyzer.dataflow;
+
+/**
+ * The control flow between the lines of a program, as seen by the data-flow solver.
+ * Nodes are numbered from 0 to size() - 1.
+ */
+public interface FlowGraph {
+    int size();
+
+    int successorCount(int node);
+
+    int successor(int node, int i);
+
+    int predecessorCount(int node);
+
+    int predecessor(int node, int i);
+}
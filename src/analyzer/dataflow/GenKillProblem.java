@@ -0,0 +1,38 @@
+package analyzer.dataflow;
+
+/**
+ * A DataflowProblem whose transfer function is output = GEN | (input & ~KILL).
+ * The KILL vectors are only referenced, so nodes may share them.
+ */
+public class GenKillProblem extends DataflowProblem {
+    private final BitVector[] m_gen;
+    private final BitVector[] m_kill;
+
+    public GenKillProblem(Direction direction, Meet meet, int universeSize, int nodeCount) {
+        super(direction, meet, universeSize);
+        m_gen = new BitVector[nodeCount];
+        m_kill = new BitVector[nodeCount];
+        BitVector empty = new BitVector(universeSize);
+        for (int node = 0; node < nodeCount; node++) {
+            m_gen[node] = new BitVector(universeSize);
+            m_kill[node] = empty;
+        }
+    }
+
+    public BitVector gen(int node) {
+        return m_gen[node];
+    }
+
+    public BitVector kill(int node) {
+        return m_kill[node];
+    }
+
+    public void setKill(int node, BitVector kill) {
+        m_kill[node] = kill;
+    }
+
+    @Override
+    public boolean transfer(int node, BitVector input, BitVector output) {
+        return output.transfer(input, m_gen[node], m_kill[node]);
+    }
+}
@@ -0,0 +1,96 @@
+package analyzer.dataflow;
+
+/**
+ * The live variables before and after every line of a straight-line code, computed by a backward analysis:
+ * IN = USE | (OUT & ~DEF), with the variables live at the exit given as the boundary.
+ * Variables are numbered from 0 to variableCount - 1 and each line defines one variable and uses up to two.
+ * The analysis only runs the first time a live set is asked, so the definitions and uses alone stay cheap to get.
+ */
+public class Liveness {
+    public static final int NONE = -1;
+
+    private final int m_variableCount;
+    private final int[] m_defs;
+    private final int[] m_lefts;
+    private final int[] m_rights;
+    private final BitVector m_exit;
+    private final DataflowSolver m_solver;
+    private DataflowResult m_result = null;
+
+    /**
+     * @param defs   The variable defined by each line.
+     * @param lefts  The variable used as left operand by each line, or NONE.
+     * @param rights The variable used as right operand by each line, or NONE.
+     * @param exit   The variables live at the exit of the code.
+     */
+    public Liveness(int variableCount, int[] defs, int[] lefts, int[] rights, BitVector exit, DataflowSolver solver) {
+        m_variableCount = variableCount;
+        m_defs = defs;
+        m_lefts = lefts;
+        m_rights = rights;
+        m_exit = exit;
+        m_solver = solver;
+    }
+
+    private DataflowResult result() {
+        if (m_result != null) return m_result;
+
+        GenKillProblem problem = new GenKillProblem(Direction.BACKWARD, Meet.UNION, m_variableCount, m_defs.length) {
+            @Override
+            public void boundary(BitVector value) {
+                value.copy(m_exit);
+            }
+        };
+        for (int i = 0; i < m_defs.length; i++) {
+            if (m_lefts[i] != NONE) problem.gen(i).set(m_lefts[i]);
+            if (m_rights[i] != NONE) problem.gen(i).set(m_rights[i]);
+
+            BitVector kill = new BitVector(m_variableCount);
+            kill.set(m_defs[i]);
+            problem.setKill(i, kill);
+        }
+        m_result = m_solver.solve(problem, new StraightLineGraph(m_defs.length));
+        return m_result;
+    }
+
+    public int variableCount() {
+        return m_variableCount;
+    }
+
+    public int lineCount() {
+        return m_defs.length;
+    }
+
+    public int def(int line) {
+        return m_defs[line];
+    }
+
+    public int left(int line) {
+        return m_lefts[line];
+    }
+
+    public int right(int line) {
+        return m_rights[line];
+    }
+
+    /**
+     * The variables live at the exit of the code.
+     */
+    public BitVector exit() {
+        return m_exit;
+    }
+
+    /**
+     * The variables live before line.
+     */
+    public BitVector in(int line) {
+        return result().in(line);
+    }
+
+    /**
+     * The variables live after line.
+     */
+    public BitVector out(int line) {
+        return result().out(line);
+    }
+}
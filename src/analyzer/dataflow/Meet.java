@@ -0,0 +1,39 @@
+package analyzer.dataflow;
+
+/**
+ * The operator combining the values flowing into a node that has several predecessors.
+ * It also fixes the lattice element every value starts from, which is the identity of the operator.
+ */
+public enum Meet {
+    /** May analyses, a fact holds if it holds on any path. */
+    UNION {
+        @Override
+        public void apply(BitVector into, BitVector value) {
+            into.or(value);
+        }
+
+        @Override
+        public void top(BitVector value) {
+            value.clear();
+        }
+    },
+    /** Must analyses, a fact holds only if it holds on every path. */
+    INTERSECTION {
+        @Override
+        public void apply(BitVector into, BitVector value) {
+            into.and(value);
+        }
+
+        @Override
+        public void top(BitVector value) {
+            value.setAll();
+        }
+    };
+
+    public abstract void apply(BitVector into, BitVector value);
+
+    /**
+     * Resets value to the identity of the operator.
+     */
+    public abstract void top(BitVector value);
+}
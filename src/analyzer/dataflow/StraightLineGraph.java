@@ -0,0 +1,37 @@
+package analyzer.dataflow;
+
+/**
+ * The flow graph of a block without jumps: every line flows into the next one.
+ */
+public class StraightLineGraph implements FlowGraph {
+    private final int size;
+
+    public StraightLineGraph(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int successorCount(int node) {
+        return node + 1 < size ? 1 : 0;
+    }
+
+    @Override
+    public int successor(int node, int i) {
+        return node + 1;
+    }
+
+    @Override
+    public int predecessorCount(int node) {
+        return node > 0 ? 1 : 0;
+    }
+
+    @Override
+    public int predecessor(int node, int i) {
+        return node - 1;
+    }
+}
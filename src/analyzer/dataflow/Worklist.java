@@ -0,0 +1,35 @@
+package analyzer.dataflow;
+
+/**
+ * A FIFO queue of nodes in which every node is present at most once.
+ */
+public class Worklist {
+    private final int[] queue;
+    private final BitVector queued;
+    private int head = 0;
+    private int count = 0;
+
+    public Worklist(int size) {
+        queue = new int[Math.max(size, 1)];
+        queued = new BitVector(size);
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void add(int node) {
+        if (queued.get(node)) return;
+        queued.set(node);
+        queue[(head + count) % queue.length] = node;
+        count++;
+    }
+
+    public int remove() {
+        int node = queue[head];
+        head = (head + 1) % queue.length;
+        count--;
+        queued.clear(node);
+        return node;
+    }
+}
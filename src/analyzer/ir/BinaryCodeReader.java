@@ -0,0 +1,112 @@
+package analyzer.ir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays a .cib file written by a BinaryCodeWriter into a CodeSink, with the same calls the streaming parse mode
+ * would make for the source. The file is read through a direct buffer that is refilled from the channel, the fixed
+ * size of the statement records lets each one be decoded straight from it.
+ */
+public class BinaryCodeReader {
+    private final ReadableByteChannel m_channel;
+    private final ByteBuffer m_buffer = ByteBuffer.allocateDirect(1 << 16);
+
+    private BinaryCodeReader(ReadableByteChannel channel) {
+        m_channel = channel;
+        m_buffer.flip();
+    }
+
+    public static void read(Path path, CodeSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(channel, sink);
+        }
+    }
+
+    public static void read(ReadableByteChannel channel, CodeSink sink) throws IOException {
+        new BinaryCodeReader(channel).replay(sink);
+    }
+
+    private void replay(CodeSink sink) throws IOException {
+        if (readInt() != BinaryCodeWriter.MAGIC) {
+            throw new IOException("Not a .cib file");
+        }
+        require(1);
+        boolean hasRegisters = m_buffer.get() != 0;
+        int registers = hasRegisters ? readInt() : 0;
+
+        SymbolTable symbols = new SymbolTable();
+        int identifiers = readInt();
+        for (int i = 0; i < identifiers; i++) {
+            symbols.identifier(readName());
+        }
+        int constants = readInt();
+        for (int i = 0; i < constants; i++) {
+            symbols.constant(readInt());
+        }
+
+        sink.begin(symbols);
+        if (hasRegisters) {
+            sink.registers(registers);
+        }
+
+        int statements = readInt();
+        for (int i = 0; i < statements; i++) {
+            require(BinaryCodeWriter.RECORD_SIZE);
+            int opcode = m_buffer.get();
+            int flags = m_buffer.get();
+            m_buffer.getShort();
+            int dest = m_buffer.getInt();
+            int left = m_buffer.getInt();
+            int right = m_buffer.getInt();
+            boolean leftConstant = (flags & Code.LEFT_CONSTANT) != 0;
+            if ((flags & Code.NO_RIGHT) != 0) {
+                sink.statement(opcode, dest, left, leftConstant);
+            } else {
+                sink.statement(opcode, dest, left, leftConstant, right, (flags & Code.RIGHT_CONSTANT) != 0);
+            }
+        }
+
+        int returns = readInt();
+        for (int i = 0; i < returns; i++) {
+            sink.returns(readInt());
+        }
+        sink.end();
+    }
+
+    private int readInt() throws IOException {
+        require(4);
+        return m_buffer.getInt();
+    }
+
+    private String readName() throws IOException {
+        int length = readInt();
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            require(1);
+            int count = Math.min(length - read, m_buffer.remaining());
+            m_buffer.get(bytes, read, count);
+            read += count;
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    // Makes sure the buffer holds at least count bytes, reading more from the channel if needed
+    private void require(int count) throws IOException {
+        if (m_buffer.remaining() >= count) return;
+        m_buffer.compact();
+        while (m_buffer.position() < count) {
+            if (m_channel.read(m_buffer) < 0) {
+                throw new EOFException("Truncated .cib file");
+            }
+        }
+        m_buffer.flip();
+    }
+}
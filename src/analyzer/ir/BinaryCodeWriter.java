@@ -0,0 +1,118 @@
+package analyzer.ir;
+
+import analyzer.util.IntList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the program pushed to it as a precompiled .cib file, which a BinaryCodeReader replays without lexing the
+ * source again. Every number is big-endian, as DataOutput writes them:
+ * <pre>
+ *   int     MAGIC
+ *   byte    1 if NUMBER_OF_REGISTER_AVAILABLE is declared, then its int value
+ *   int     identifier count, then for each identifier: int length, the ASCII bytes of its name
+ *   int     constant count, then the int value of each constant
+ *   int     statement count, then a RECORD_SIZE record for each statement:
+ *           byte opcode, byte flags of Code, short 0, int dest, int left, int right (0 without right operand)
+ *   int     returned identifier count, then each returned identifier
+ * </pre>
+ * The identifiers and constants are written in the order of their numbers, so reading them back into a new
+ * SymbolTable gives them the same numbers. The symbol table is only complete once the program was read,
+ * so the statements are kept until end() writes the file.
+ */
+public class BinaryCodeWriter implements CodeSink {
+    static final int MAGIC = 0x43494231; // "CIB1"
+    static final int RECORD_SIZE = 16;
+
+    private final DataOutputStream m_output;
+    private SymbolTable m_symbols;
+    private int m_registers = -1;
+    private final IntList m_statements = new IntList(64);
+    private final IntList m_returns = new IntList();
+
+    public BinaryCodeWriter(OutputStream output) {
+        m_output = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+    }
+
+    @Override
+    public void begin(SymbolTable symbols) {
+        m_symbols = symbols;
+    }
+
+    @Override
+    public void registers(int count) {
+        m_registers = count;
+    }
+
+    @Override
+    public void statement(int opcode, int dest, int left, boolean leftConstant, int right, boolean rightConstant) {
+        int flags = (leftConstant ? Code.LEFT_CONSTANT : 0) | (rightConstant ? Code.RIGHT_CONSTANT : 0);
+        add(opcode, flags, dest, left, right);
+    }
+
+    @Override
+    public void statement(int opcode, int dest, int left, boolean leftConstant) {
+        add(opcode, (leftConstant ? Code.LEFT_CONSTANT : 0) | Code.NO_RIGHT, dest, left, 0);
+    }
+
+    private void add(int opcode, int flags, int dest, int left, int right) {
+        m_statements.add(opcode << 8 | flags);
+        m_statements.add(dest);
+        m_statements.add(left);
+        m_statements.add(right);
+    }
+
+    @Override
+    public void returns(int identifier) {
+        m_returns.add(identifier);
+    }
+
+    @Override
+    public void end() {
+        try {
+            write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write() throws IOException {
+        m_output.writeInt(MAGIC);
+        m_output.writeBoolean(m_registers >= 0);
+        if (m_registers >= 0) {
+            m_output.writeInt(m_registers);
+        }
+
+        m_output.writeInt(m_symbols.identifierCount());
+        for (int i = 0; i < m_symbols.identifierCount(); i++) {
+            String name = m_symbols.name(i);
+            m_output.writeInt(name.length());
+            m_output.writeBytes(name);
+        }
+        m_output.writeInt(m_symbols.constantCount());
+        for (int i = 0; i < m_symbols.constantCount(); i++) {
+            m_output.writeInt(m_symbols.valueOf(i));
+        }
+
+        m_output.writeInt(m_statements.size() / 4);
+        for (int i = 0; i < m_statements.size(); i += 4) {
+            int header = m_statements.get(i);
+            m_output.writeByte(header >>> 8);
+            m_output.writeByte(header & 0xFF);
+            m_output.writeShort(0);
+            m_output.writeInt(m_statements.get(i + 1));
+            m_output.writeInt(m_statements.get(i + 2));
+            m_output.writeInt(m_statements.get(i + 3));
+        }
+
+        m_output.writeInt(m_returns.size());
+        for (int i = 0; i < m_returns.size(); i++) {
+            m_output.writeInt(m_returns.get(i));
+        }
+        m_output.flush();
+    }
+}
@@ -0,0 +1,315 @@
+package analyzer.ir;
+
+import analyzer.dataflow.BitVector;
+import analyzer.util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * The three-address code of a program, stored as parallel primitive arrays: line i is
+ * dest(i) = left(i) opcode(i) right(i), where dest is always a variable and each operand is a variable or a constant.
+ * Direct assignments are stored as "left ADD nothing" and unary assignments as "left SUB nothing", like the
+ * grammar writes them, so a line without right operand is a copy or a negation.
+ * The variables are numbered by the code in the order they are first seen, so the analyses compare ints only,
+ * and a constant operand is the number of the constant in the symbol table of the program.
+ */
+public class Code {
+    public static final int ADD = 0;
+    public static final int SUB = 1;
+    public static final int MUL = 2;
+    public static final int DIV = 3;
+
+    public static final int NONE = -1;
+
+    private static final String[] OPERATORS = {"+", "-", "*", "/"};
+
+    // The flags of a line, telling how its operands are stored
+    public static final byte LEFT_CONSTANT = 1;
+    public static final byte RIGHT_CONSTANT = 2;
+    public static final byte NO_RIGHT = 4;
+
+    private int[] m_opcodes;
+    private int[] m_dests;
+    private int[] m_lefts;
+    private int[] m_rights;
+    private byte[] m_flags;
+    private int m_size = 0;
+
+    private final SymbolTable m_symbols;
+    // The variable of each identifier of the symbol table, plus one so 0 means not numbered yet
+    private int[] m_variables;
+    // The identifier of each variable
+    private final IntList m_identifiers = new IntList();
+
+    public Code(SymbolTable symbols) {
+        this(symbols, 16);
+    }
+
+    public Code(SymbolTable symbols, int capacity) {
+        m_symbols = symbols;
+        m_variables = new int[Math.max(symbols.identifierCount(), 16)];
+        capacity = Math.max(capacity, 1);
+        m_opcodes = new int[capacity];
+        m_dests = new int[capacity];
+        m_lefts = new int[capacity];
+        m_rights = new int[capacity];
+        m_flags = new byte[capacity];
+    }
+
+    /**
+     * Returns the opcode of an operator of the grammar.
+     */
+    public static int opcodeOf(String operator) {
+        switch (operator) {
+            case "+": return ADD;
+            case "-": return SUB;
+            case "*": return MUL;
+            case "/": return DIV;
+            default: throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+    }
+
+    public static String operatorOf(int opcode) {
+        return OPERATORS[opcode];
+    }
+
+    /**
+     * True for the opcodes whose operands can be swapped without changing the result.
+     */
+    public static boolean isCommutative(int opcode) {
+        return opcode == ADD || opcode == MUL;
+    }
+
+    public SymbolTable symbols() {
+        return m_symbols;
+    }
+
+    /**
+     * Returns the variable of an identifier of the symbol table, numbering it if it is new.
+     */
+    public int variableOf(int identifier) {
+        if (identifier >= m_variables.length) {
+            m_variables = Arrays.copyOf(m_variables, Math.max(identifier + 1, m_variables.length * 2));
+        }
+        if (m_variables[identifier] == 0) {
+            m_identifiers.add(identifier);
+            m_variables[identifier] = m_identifiers.size();
+        }
+        return m_variables[identifier] - 1;
+    }
+
+    /**
+     * Returns the variable of a name, interning and numbering it if it is new.
+     */
+    public int variable(String name) {
+        return variableOf(m_symbols.identifier(name));
+    }
+
+    /**
+     * Returns the variable of a name, or NONE if it was never numbered.
+     */
+    public int idOf(String name) {
+        int identifier = m_symbols.idOf(name);
+        if (identifier == SymbolTable.NONE || identifier >= m_variables.length) return NONE;
+        return m_variables[identifier] - 1;
+    }
+
+    public int identifierOf(int variable) {
+        return m_identifiers.get(variable);
+    }
+
+    public String name(int variable) {
+        return m_symbols.name(m_identifiers.get(variable));
+    }
+
+    public int variableCount() {
+        return m_identifiers.size();
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    /**
+     * Appends dest = left opcode right and returns its line number.
+     */
+    public int add(int opcode, int dest, int left, boolean leftConstant, int right, boolean rightConstant) {
+        int line = append(opcode, dest, left, leftConstant);
+        m_rights[line] = right;
+        if (rightConstant) m_flags[line] |= RIGHT_CONSTANT;
+        return line;
+    }
+
+    /**
+     * Appends a line without right operand, a copy for ADD and a negation for SUB, and returns its line number.
+     */
+    public int add(int opcode, int dest, int left, boolean leftConstant) {
+        int line = append(opcode, dest, left, leftConstant);
+        m_flags[line] |= NO_RIGHT;
+        return line;
+    }
+
+    private int append(int opcode, int dest, int left, boolean leftConstant) {
+        if (m_size == m_opcodes.length) {
+            int capacity = m_size * 2;
+            m_opcodes = Arrays.copyOf(m_opcodes, capacity);
+            m_dests = Arrays.copyOf(m_dests, capacity);
+            m_lefts = Arrays.copyOf(m_lefts, capacity);
+            m_rights = Arrays.copyOf(m_rights, capacity);
+            m_flags = Arrays.copyOf(m_flags, capacity);
+        }
+        int line = m_size++;
+        m_opcodes[line] = opcode;
+        m_dests[line] = dest;
+        m_lefts[line] = left;
+        m_rights[line] = 0;
+        m_flags[line] = leftConstant ? LEFT_CONSTANT : 0;
+        return line;
+    }
+
+    public int opcode(int line) {
+        return m_opcodes[line];
+    }
+
+    public int dest(int line) {
+        return m_dests[line];
+    }
+
+    /**
+     * The left operand, a variable or a constant of the symbol table.
+     */
+    public int left(int line) {
+        return m_lefts[line];
+    }
+
+    /**
+     * The right operand, a variable or a constant of the symbol table, meaningless without right operand.
+     */
+    public int right(int line) {
+        return m_rights[line];
+    }
+
+    public boolean isLeftConstant(int line) {
+        return (m_flags[line] & LEFT_CONSTANT) != 0;
+    }
+
+    public boolean isRightConstant(int line) {
+        return (m_flags[line] & RIGHT_CONSTANT) != 0;
+    }
+
+    public boolean hasRight(int line) {
+        return (m_flags[line] & NO_RIGHT) == 0;
+    }
+
+    /**
+     * True for a direct assignment dest = left.
+     */
+    public boolean isCopy(int line) {
+        return !hasRight(line) && m_opcodes[line] == ADD;
+    }
+
+    /**
+     * The variable used as left operand, or NONE for a constant.
+     */
+    public int leftVariable(int line) {
+        return isLeftConstant(line) ? NONE : m_lefts[line];
+    }
+
+    /**
+     * The variable used as right operand, or NONE for a constant or no operand.
+     */
+    public int rightVariable(int line) {
+        return (m_flags[line] & (RIGHT_CONSTANT | NO_RIGHT)) != 0 ? NONE : m_rights[line];
+    }
+
+    /**
+     * The flags of the line, equal for two lines whose operands are stored the same way.
+     */
+    public int flags(int line) {
+        return m_flags[line];
+    }
+
+    public void setDest(int line, int variable) {
+        m_dests[line] = variable;
+    }
+
+    public void setLeftVariable(int line, int variable) {
+        m_lefts[line] = variable;
+        m_flags[line] &= ~LEFT_CONSTANT;
+    }
+
+    public void setRightVariable(int line, int variable) {
+        m_rights[line] = variable;
+        m_flags[line] &= ~(RIGHT_CONSTANT | NO_RIGHT);
+    }
+
+    public void setLeftConstant(int line, int constant) {
+        m_lefts[line] = constant;
+        m_flags[line] |= LEFT_CONSTANT;
+    }
+
+    public void setRightConstant(int line, int constant) {
+        m_rights[line] = constant;
+        m_flags[line] |= RIGHT_CONSTANT;
+        m_flags[line] &= ~NO_RIGHT;
+    }
+
+    /**
+     * Replaces the line by a copy of the constant, dest = #value.
+     */
+    public void rewriteConstant(int line, int constant) {
+        m_opcodes[line] = ADD;
+        m_lefts[line] = constant;
+        m_rights[line] = 0;
+        m_flags[line] = LEFT_CONSTANT | NO_RIGHT;
+    }
+
+    /**
+     * Replaces the line by the opcode applied to the variable alone, without right operand.
+     */
+    public void rewrite(int line, int opcode, int variable) {
+        m_opcodes[line] = opcode;
+        m_lefts[line] = variable;
+        m_rights[line] = 0;
+        m_flags[line] = NO_RIGHT;
+    }
+
+    /**
+     * Keeps only the lines set in lines, in the same order.
+     */
+    public void retain(BitVector lines) {
+        int size = 0;
+        for (int line = lines.nextSetBit(0); line >= 0 && line < m_size; line = lines.nextSetBit(line + 1)) {
+            m_opcodes[size] = m_opcodes[line];
+            m_dests[size] = m_dests[line];
+            m_lefts[size] = m_lefts[line];
+            m_rights[size] = m_rights[line];
+            m_flags[size] = m_flags[line];
+            size++;
+        }
+        m_size = size;
+    }
+
+    public void clear() {
+        m_size = 0;
+    }
+
+    /**
+     * Prints the left operand the way the analyses show it: the name of a variable or "#value" for a constant.
+     */
+    public String leftOperand(int line) {
+        return isLeftConstant(line) ? m_symbols.image(m_lefts[line]) : name(m_lefts[line]);
+    }
+
+    /**
+     * Prints the right operand like leftOperand, or "" without right operand.
+     */
+    public String rightOperand(int line) {
+        if (!hasRight(line)) return "";
+        return isRightConstant(line) ? m_symbols.image(m_rights[line]) : name(m_rights[line]);
+    }
+}
@@ -0,0 +1,34 @@
+package analyzer.ir;
+
+/**
+ * Receives a program statement by statement, as the streaming parse mode reads it, without any tree being built.
+ * Identifiers and constants are given as their numbers in the symbol table of the parse.
+ */
+public interface CodeSink {
+    /**
+     * Called first with the symbol table the parser fills.
+     */
+    void begin(SymbolTable symbols);
+
+    /**
+     * The value of NUMBER_OF_REGISTER_AVAILABLE, only called when the program declares it.
+     */
+    void registers(int count);
+
+    /**
+     * dest = left opcode right, where a constant operand is a constant of the symbol table.
+     */
+    void statement(int opcode, int dest, int left, boolean leftConstant, int right, boolean rightConstant);
+
+    /**
+     * dest = left for ADD, dest = minus left for SUB.
+     */
+    void statement(int opcode, int dest, int left, boolean leftConstant);
+
+    void returns(int identifier);
+
+    /**
+     * Called once the whole program was read.
+     */
+    void end();
+}
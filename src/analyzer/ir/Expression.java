@@ -0,0 +1,68 @@
+package analyzer.ir;
+
+/**
+ * The right-hand side of a line: an opcode applied to its operands, with the flags of the line telling which
+ * operands are constants and whether there is a right operand.
+ * Expressions are only created by an ExpressionTable, which keeps a single instance per distinct expression,
+ * so two expressions are equal only if they are the same instance, "a + b" and "b + a" included. The ordinal
+ * numbers the expressions of a table densely, in the order they were first seen.
+ */
+public final class Expression {
+    public final int op;
+    public final int left;
+    public final int right;
+    public final int flags;
+    public final int ordinal;
+    private final int m_hash;
+
+    Expression(int op, int left, int right, int flags, int ordinal, int hash) {
+        this.op = op;
+        this.left = left;
+        this.right = right;
+        this.flags = flags;
+        this.ordinal = ordinal;
+        this.m_hash = hash;
+    }
+
+    /**
+     * True if the expression computes op applied to the operands, in either order for + and *.
+     */
+    boolean matches(int op, int left, int right, int flags) {
+        if (this.op != op) return false;
+        if (this.left == left && this.right == right && this.flags == flags) return true;
+        return isCommutative(op, flags) && this.left == right && this.right == left
+                && this.flags == swapConstants(flags);
+    }
+
+    static boolean isCommutative(int op, int flags) {
+        return (flags & Code.NO_RIGHT) == 0 && Code.isCommutative(op);
+    }
+
+    // The flags of the same operands given in the other order
+    static int swapConstants(int flags) {
+        int swapped = flags & ~(Code.LEFT_CONSTANT | Code.RIGHT_CONSTANT);
+        if ((flags & Code.LEFT_CONSTANT) != 0) swapped |= Code.RIGHT_CONSTANT;
+        if ((flags & Code.RIGHT_CONSTANT) != 0) swapped |= Code.LEFT_CONSTANT;
+        return swapped;
+    }
+
+    @Override
+    public int hashCode() {
+        return m_hash;
+    }
+
+    /**
+     * Prints the expression as left + op + right, with the names and the constants of the code.
+     */
+    public String toString(Code code) {
+        String text = operand(code, left, (flags & Code.LEFT_CONSTANT) != 0) + Code.operatorOf(op);
+        if ((flags & Code.NO_RIGHT) == 0) {
+            text += operand(code, right, (flags & Code.RIGHT_CONSTANT) != 0);
+        }
+        return text;
+    }
+
+    private static String operand(Code code, int value, boolean constant) {
+        return constant ? code.symbols().image(value) : code.name(value);
+    }
+}
@@ -0,0 +1,103 @@
+package analyzer.ir;
+
+import java.util.Arrays;
+
+/**
+ * Hash-conses the expressions of a code: each distinct expression is created once, with its hash computed once,
+ * and is found again from the fields of a line without allocating anything.
+ * The operands of + and * can be given in any order: "b + a" is found as the expression created for "a + b",
+ * which keeps the operands in the order it was first seen to be printed the same way.
+ * The table is open-addressed with linear probing and stays at most half full.
+ */
+public class ExpressionTable {
+    private Expression[] m_slots = new Expression[64];
+    private Expression[] m_expressions = new Expression[32];
+    private int m_size = 0;
+
+    private static int hash(int op, int left, int right, int flags) {
+        // Both orders of the operands of + and * hash as the canonical one: the variables before the constants,
+        // and two operands of the same kind in the order of their numbers
+        if (Expression.isCommutative(op, flags)) {
+            boolean leftConstant = (flags & Code.LEFT_CONSTANT) != 0;
+            boolean rightConstant = (flags & Code.RIGHT_CONSTANT) != 0;
+            if (leftConstant != rightConstant ? leftConstant : left > right) {
+                int operand = left;
+                left = right;
+                right = operand;
+                flags = Expression.swapConstants(flags);
+            }
+        }
+        int h = (((op * 31 + left) * 31 + right) * 31 + flags) * 0x9E3779B9;
+        // Spread the bits so that consecutive operands do not fill consecutive slots
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the expression computed by a line, creating it the first time it is seen.
+     */
+    public Expression intern(Code code, int line) {
+        return intern(code.opcode(line), code.left(line), code.right(line), code.flags(line));
+    }
+
+    public Expression intern(int op, int left, int right, int flags) {
+        int h = hash(op, left, right, flags);
+        int mask = m_slots.length - 1;
+        int slot = h & mask;
+        for (Expression e = m_slots[slot]; e != null; e = m_slots[slot]) {
+            if (e.hashCode() == h && e.matches(op, left, right, flags)) return e;
+            slot = (slot + 1) & mask;
+        }
+
+        Expression created = new Expression(op, left, right, flags, m_size, h);
+        if (m_size == m_expressions.length) {
+            m_expressions = Arrays.copyOf(m_expressions, m_size * 2);
+        }
+        m_expressions[m_size++] = created;
+        m_slots[slot] = created;
+        if (m_size * 2 > m_slots.length) {
+            grow();
+        }
+        return created;
+    }
+
+    /**
+     * Returns the expression computed by a line if it was already interned, or null.
+     */
+    public Expression lookup(Code code, int line) {
+        return lookup(code.opcode(line), code.left(line), code.right(line), code.flags(line));
+    }
+
+    public Expression lookup(int op, int left, int right, int flags) {
+        int h = hash(op, left, right, flags);
+        int mask = m_slots.length - 1;
+        for (int slot = h & mask; m_slots[slot] != null; slot = (slot + 1) & mask) {
+            Expression e = m_slots[slot];
+            if (e.hashCode() == h && e.matches(op, left, right, flags)) return e;
+        }
+        return null;
+    }
+
+    private void grow() {
+        Expression[] slots = new Expression[m_slots.length * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < m_size; i++) {
+            int slot = m_expressions[i].hashCode() & mask;
+            while (slots[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = m_expressions[i];
+        }
+        m_slots = slots;
+    }
+
+    /**
+     * The expression with the ordinal.
+     */
+    public Expression get(int ordinal) {
+        return m_expressions[ordinal];
+    }
+
+    public int size() {
+        return m_size;
+    }
+}
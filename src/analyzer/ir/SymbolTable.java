@@ -0,0 +1,101 @@
+package analyzer.ir;
+
+import analyzer.util.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The identifiers and the constants of a program, each interned once into a dense number as the parser reads them.
+ * Identifiers and constants are numbered separately, from 0. The table keeps the reverse lookups used to print
+ * them back, and the properties derived from a name, which are computed once when the name is first seen.
+ */
+public class SymbolTable {
+    public static final int NONE = -1;
+
+    private final HashMap<String, Integer> m_identifierIds = new HashMap<>();
+    private final ArrayList<String> m_names = new ArrayList<>();
+    private boolean[] m_temporaries = new boolean[16];
+
+    private final HashMap<Integer, Integer> m_constantIds = new HashMap<>();
+    private final IntList m_values = new IntList();
+    private final ArrayList<String> m_images = new ArrayList<>();
+
+    /**
+     * Returns the number of an identifier, interning it if it is new.
+     */
+    public int identifier(String name) {
+        Integer id = m_identifierIds.get(name);
+        if (id == null) {
+            id = m_names.size();
+            m_identifierIds.put(name, id);
+            m_names.add(name);
+            if (id == m_temporaries.length) {
+                m_temporaries = Arrays.copyOf(m_temporaries, id * 2);
+            }
+            m_temporaries[id] = isTemporaryName(name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of an identifier, or NONE if it was never interned.
+     */
+    public int idOf(String name) {
+        return m_identifierIds.getOrDefault(name, NONE);
+    }
+
+    public String name(int identifier) {
+        return m_names.get(identifier);
+    }
+
+    /**
+     * True for the temporaries introduced by the translation to three-address code: t followed by digits.
+     */
+    public boolean isTemporary(int identifier) {
+        return m_temporaries[identifier];
+    }
+
+    public int identifierCount() {
+        return m_names.size();
+    }
+
+    /**
+     * Returns the number of a constant, interning it if it is new.
+     */
+    public int constant(int value) {
+        Integer id = m_constantIds.get(value);
+        if (id == null) {
+            id = m_values.size();
+            m_constantIds.put(value, id);
+            m_values.add(value);
+            m_images.add("#" + value);
+        }
+        return id;
+    }
+
+    public int valueOf(int constant) {
+        return m_values.get(constant);
+    }
+
+    /**
+     * The constant printed the way the analyses show it: "#value".
+     */
+    public String image(int constant) {
+        return m_images.get(constant);
+    }
+
+    public int constantCount() {
+        return m_values.size();
+    }
+
+    public static boolean isTemporaryName(String name) {
+        if (name.length() < 2 || name.charAt(0) != 't') return false;
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package analyzer.opt;
+
+import analyzer.ir.Code;
+import analyzer.util.IntList;
+
+/**
+ * Rewrites the lines whose result follows from an algebraic identity into cheaper ones, the multiplications and
+ * divisions being the most expensive instructions of the simulator:
+ * x * 2 and 2 * x become x + x; x * 1, 1 * x, x + 0, 0 + x, x - 0 and x / 1 become a copy of x;
+ * x * 0, 0 * x and x - x become the constant 0.
+ * Each line is rewritten on its own, so a single scan does it all. A copy made here is free in the machine code and
+ * can be propagated by the other passes.
+ */
+public class AlgebraicSimplification implements Pass {
+    private static final int NOT_CONSTANT = -1;
+
+    @Override
+    public void run(Code code, IntList returns) {
+        for (int i = 0; i < code.size(); i++) {
+            if (code.hasRight(i)) {
+                simplify(code, i);
+            }
+        }
+    }
+
+    private static void simplify(Code code, int line) {
+        int left = constantValue(code, code.left(line), code.isLeftConstant(line));
+        int right = constantValue(code, code.right(line), code.isRightConstant(line));
+        switch (code.opcode(line)) {
+            case Code.MUL:
+                if (left == 0 || right == 0) {
+                    code.rewriteConstant(line, code.symbols().constant(0));
+                } else if (right == 1) {
+                    copyLeft(code, line);
+                } else if (left == 1) {
+                    copyRight(code, line);
+                } else if (right == 2) {
+                    doubleLeft(code, line);
+                } else if (left == 2) {
+                    copyRight(code, line);
+                    doubleLeft(code, line);
+                }
+                break;
+            case Code.ADD:
+                if (right == 0) {
+                    copyLeft(code, line);
+                } else if (left == 0) {
+                    copyRight(code, line);
+                }
+                break;
+            case Code.SUB:
+                if (right == 0) {
+                    copyLeft(code, line);
+                } else if (code.leftVariable(line) != Code.NONE
+                        && code.leftVariable(line) == code.rightVariable(line)) {
+                    code.rewriteConstant(line, code.symbols().constant(0));
+                }
+                break;
+            default:
+                if (right == 1) {
+                    copyLeft(code, line);
+                }
+                break;
+        }
+    }
+
+    // The value of a constant operand, or NOT_CONSTANT for a variable
+    private static int constantValue(Code code, int operand, boolean constant) {
+        return constant ? code.symbols().valueOf(operand) : NOT_CONSTANT;
+    }
+
+    private static void copyLeft(Code code, int line) {
+        if (code.isLeftConstant(line)) {
+            code.rewriteConstant(line, code.left(line));
+        } else {
+            code.rewrite(line, Code.ADD, code.left(line));
+        }
+    }
+
+    private static void copyRight(Code code, int line) {
+        if (code.isRightConstant(line)) {
+            code.rewriteConstant(line, code.right(line));
+        } else {
+            code.rewrite(line, Code.ADD, code.right(line));
+        }
+    }
+
+    // Replaces the line by left + left, the line being a copy or having a right operand
+    private static void doubleLeft(Code code, int line) {
+        int left = code.left(line);
+        if (code.isLeftConstant(line)) {
+            code.rewriteConstant(line, left);
+            code.setRightConstant(line, left);
+        } else {
+            code.rewrite(line, Code.ADD, left);
+            code.setRightVariable(line, left);
+        }
+    }
+}
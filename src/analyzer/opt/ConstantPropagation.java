@@ -0,0 +1,68 @@
+package analyzer.opt;
+
+import analyzer.ir.Code;
+import analyzer.ir.SymbolTable;
+import analyzer.util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Replaces the operands whose value is a known constant by that constant, and folds the lines whose operands
+ * are all constants into an assignment of their result.
+ * The code is straight-line, so a single forward scan keeping the value of every variable is the whole analysis:
+ * a variable is a known constant from its assignment by a folded line until it is assigned again.
+ * The language and the simulator only have non-negative integer constants, so a result that is negative, does not
+ * fit an int or divides by zero is left to be computed at run time.
+ * The lines left without use are removed by the dead code elimination of the visitors.
+ */
+public class ConstantPropagation implements Pass {
+    private static final int UNKNOWN = -1;
+
+    @Override
+    public void run(Code code, IntList returns) {
+        SymbolTable symbols = code.symbols();
+        int[] values = new int[code.variableCount()];
+        Arrays.fill(values, UNKNOWN);
+
+        for (int i = 0; i < code.size(); i++) {
+            int left = code.leftVariable(i);
+            if (left != Code.NONE && values[left] != UNKNOWN) {
+                code.setLeftConstant(i, symbols.constant(values[left]));
+            }
+            int right = code.rightVariable(i);
+            if (right != Code.NONE && values[right] != UNKNOWN) {
+                code.setRightConstant(i, symbols.constant(values[right]));
+            }
+
+            int value = UNKNOWN;
+            if (code.isLeftConstant(i) && (!code.hasRight(i) || code.isRightConstant(i))) {
+                value = evaluate(code, i);
+                if (value != UNKNOWN) {
+                    code.rewriteConstant(i, symbols.constant(value));
+                }
+            }
+            values[code.dest(i)] = value;
+        }
+    }
+
+    // The value of a line whose operands are all constants, or UNKNOWN if it cannot be written as a constant
+    private static int evaluate(Code code, int line) {
+        long left = code.symbols().valueOf(code.left(line));
+        long result;
+        if (!code.hasRight(line)) {
+            result = code.opcode(line) == Code.SUB ? -left : left;
+        } else {
+            long right = code.symbols().valueOf(code.right(line));
+            switch (code.opcode(line)) {
+                case Code.ADD: result = left + right; break;
+                case Code.SUB: result = left - right; break;
+                case Code.MUL: result = left * right; break;
+                default:
+                    if (right == 0) return UNKNOWN;
+                    result = left / right;
+                    break;
+            }
+        }
+        return result >= 0 && result <= Integer.MAX_VALUE ? (int) result : UNKNOWN;
+    }
+}
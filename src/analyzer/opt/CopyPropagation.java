@@ -0,0 +1,191 @@
+package analyzer.opt;
+
+import analyzer.dataflow.*;
+import analyzer.ir.Code;
+import analyzer.util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Replaces the uses of the variable assigned by a copy x = y with y, as long as the copy is available: neither
+ * x nor y was assigned again since. The copies that become useless are removed by the dead code elimination of
+ * the visitors, and y stays live instead of both.
+ * The available copies are a forward data-flow analysis. A line kills the copies from or to the variable it
+ * assigns, and all the lines assigning a variable share one KILL mask built from the copies of that variable.
+ * The only copy that can replace a use of x is the last line assigning x, which is kept while scanning the code.
+ * When y was itself copied from z, the use is replaced by z as long as z was not assigned since, and so on: the
+ * variables holding the same value through copies are kept in classes ordered by the copies, and the use is
+ * replaced by the first variable of the class of x. A use then takes a constant time, and the pass is linear in
+ * the size of the code, whatever the length of the chains of copies.
+ */
+public class CopyPropagation implements Pass {
+    private final DataflowSolver m_solver;
+
+    public CopyPropagation() {
+        this(new DataflowSolver());
+    }
+
+    public CopyPropagation(DataflowSolver solver) {
+        m_solver = solver;
+    }
+
+    @Override
+    public void run(Code code, IntList returns) {
+        // The number of the copy made by each line, or NONE
+        int[] copies = new int[code.size()];
+        // The lines making the copies from or to each variable
+        IntList[] copiesOf = new IntList[code.variableCount()];
+        int copyCount = 0;
+        for (int i = 0; i < code.size(); i++) {
+            copies[i] = Code.NONE;
+            int source = code.leftVariable(i);
+            if (code.isCopy(i) && source != Code.NONE && source != code.dest(i)) {
+                copies[i] = copyCount++;
+                add(copiesOf, code.dest(i), i);
+                add(copiesOf, source, i);
+            }
+        }
+        if (copyCount == 0) return;
+
+        DataflowResult available = solve(code, copies, copiesOf, copyCount);
+
+        // The variables holding the same value, linked by the copies between them in the order they were made
+        CopyClasses classes = new CopyClasses(code.size(), code.variableCount());
+        int[] lastDefinitions = new int[code.variableCount()];
+        Arrays.fill(lastDefinitions, Code.NONE);
+        for (int i = 0; i < code.size(); i++) {
+            int source = code.leftVariable(i);
+            BitVector in = available.in(i);
+            if (source != Code.NONE) {
+                code.setLeftVariable(i, propagate(source, in, copies, classes, lastDefinitions));
+            }
+            int right = code.rightVariable(i);
+            if (right != Code.NONE) {
+                code.setRightVariable(i, propagate(right, in, copies, classes, lastDefinitions));
+            }
+            int assign = code.dest(i);
+            classes.remove(assign);
+            if (copies[i] != Code.NONE) {
+                classes.join(assign, source);
+            } else {
+                classes.create(assign, i);
+            }
+            lastDefinitions[assign] = i;
+        }
+    }
+
+    private static void add(IntList[] lists, int variable, int line) {
+        if (lists[variable] == null) {
+            lists[variable] = new IntList();
+        }
+        lists[variable].add(line);
+    }
+
+    private DataflowResult solve(Code code, int[] copies, IntList[] copiesOf, int copyCount) {
+        BitVector empty = new BitVector(copyCount);
+        BitVector[] masks = new BitVector[code.variableCount()];
+        BitVector[] kill = new BitVector[code.size()];
+        for (int i = 0; i < code.size(); i++) {
+            int assign = code.dest(i);
+            if (copiesOf[assign] == null) {
+                kill[i] = empty;
+                continue;
+            }
+            if (masks[assign] == null) {
+                masks[assign] = new BitVector(copyCount);
+                for (int j = 0; j < copiesOf[assign].size(); j++) {
+                    masks[assign].set(copies[copiesOf[assign].get(j)]);
+                }
+            }
+            kill[i] = masks[assign];
+        }
+
+        DataflowProblem problem = new DataflowProblem(Direction.FORWARD, Meet.INTERSECTION, copyCount) {
+            @Override
+            public boolean transfer(int node, BitVector input, BitVector output) {
+                return copies[node] != Code.NONE
+                        ? output.transfer(input, copies[node], kill[node])
+                        : output.transfer(input, empty, kill[node]);
+            }
+        };
+        return m_solver.solve(problem, new StraightLineGraph(code.size()));
+    }
+
+    // Replaces the variable by the first variable still holding its value, when the copy that assigned it is available
+    private static int propagate(int variable, BitVector in, int[] copies, CopyClasses classes,
+                                 int[] lastDefinitions) {
+        int line = lastDefinitions[variable];
+        if (line == Code.NONE || copies[line] == Code.NONE || !in.get(copies[line])) {
+            return variable;
+        }
+        return classes.first(variable);
+    }
+
+    /**
+     * The classes of the variables holding the same value: a variable joins the class of the variable it is copied
+     * from and leaves its class when it is assigned again. Every class is a doubly linked list in the order the
+     * variables joined it, so its first variable is the one the value was copied from first. Every operation takes
+     * a constant time, whatever the length of the chains of copies.
+     */
+    private static class CopyClasses {
+        private final int[] m_classes;
+        private final int[] m_next;
+        private final int[] m_previous;
+        private final int[] m_firsts;
+        private final int[] m_lasts;
+
+        // A class is numbered by the line that created it, or follows the lines for the value a variable has on entry
+        CopyClasses(int lineCount, int variableCount) {
+            m_classes = new int[variableCount];
+            m_next = new int[variableCount];
+            m_previous = new int[variableCount];
+            m_firsts = new int[lineCount + variableCount];
+            m_lasts = new int[lineCount + variableCount];
+            Arrays.fill(m_next, Code.NONE);
+            Arrays.fill(m_previous, Code.NONE);
+            for (int variable = 0; variable < variableCount; variable++) {
+                m_classes[variable] = lineCount + variable;
+                m_firsts[lineCount + variable] = variable;
+                m_lasts[lineCount + variable] = variable;
+            }
+        }
+
+        int first(int variable) {
+            return m_firsts[m_classes[variable]];
+        }
+
+        void remove(int variable) {
+            int cls = m_classes[variable];
+            int next = m_next[variable];
+            int previous = m_previous[variable];
+            if (previous != Code.NONE) {
+                m_next[previous] = next;
+            } else {
+                m_firsts[cls] = next;
+            }
+            if (next != Code.NONE) {
+                m_previous[next] = previous;
+            } else {
+                m_lasts[cls] = previous;
+            }
+            m_next[variable] = Code.NONE;
+            m_previous[variable] = Code.NONE;
+        }
+
+        // Makes the variable the only one of the class created by the line
+        void create(int variable, int line) {
+            m_classes[variable] = line;
+            m_firsts[line] = variable;
+            m_lasts[line] = variable;
+        }
+
+        // Appends the variable to the class of the source
+        void join(int variable, int source) {
+            int cls = m_classes[source];
+            m_classes[variable] = cls;
+            m_previous[variable] = m_lasts[cls];
+            m_next[m_lasts[cls]] = variable;
+            m_lasts[cls] = variable;
+        }
+    }
+}
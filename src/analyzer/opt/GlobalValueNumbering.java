@@ -0,0 +1,185 @@
+package analyzer.opt;
+
+import analyzer.ir.Code;
+import analyzer.util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Gives a value number to every value computed by the code, two values being congruent when they have the same
+ * number, and replaces a line computing a value already held by a variable by a copy of that variable.
+ * A copy has the number of its operand, and so do the trivial identities x + 0, 0 + x, x - 0, x * 1, 1 * x and
+ * x / 1, so a value is found again through copies and identities. Every other line looks up its operator applied
+ * to the numbers of its operands in a hash table, the operands of + and * in increasing order. The work is linear.
+ * The variable holding a value is the first one assigned to it. In SSA form it is never assigned again, so every
+ * congruent line is replaced. Otherwise a holder assigned again since is replaced by the next variable assigned
+ * to the value, and the lines in between keep computing it. A line whose variable already holds its value becomes
+ * a copy of itself, which the dead code elimination of the machine code drops.
+ */
+public class GlobalValueNumbering implements Pass {
+    private static final int NONE = -1;
+
+    private int[] m_holders;
+    private int[] m_constants;
+    private int m_valueCount;
+
+    @Override
+    public void run(Code code, IntList returns) {
+        int[] numbers = new int[code.variableCount()];
+        Arrays.fill(numbers, NONE);
+        int[] constantNumbers = new int[code.symbols().constantCount()];
+        Arrays.fill(constantNumbers, NONE);
+        // The variable holding each value and the constant each value is, or NONE
+        m_holders = new int[Math.max(code.size(), 16)];
+        m_constants = new int[m_holders.length];
+        m_valueCount = 0;
+        ValueTable table = new ValueTable(code.size());
+
+        for (int i = 0; i < code.size(); i++) {
+            int left = valueOf(code.left(i), code.isLeftConstant(i), numbers, constantNumbers);
+            int value;
+            if (code.isCopy(i)) {
+                value = left;
+            } else if (!code.hasRight(i)) {
+                value = table.valueOf(code.opcode(i), left, NONE, this);
+            } else {
+                int right = valueOf(code.right(i), code.isRightConstant(i), numbers, constantNumbers);
+                value = identity(code, code.opcode(i), left, right);
+                if (value == NONE) {
+                    boolean swap = Code.isCommutative(code.opcode(i)) && left > right;
+                    value = table.valueOf(code.opcode(i), swap ? right : left, swap ? left : right, this);
+                }
+            }
+
+            int assign = code.dest(i);
+            int holder = m_holders[value];
+            if (m_constants[value] != NONE) {
+                if (!code.isCopy(i) || !code.isLeftConstant(i)) {
+                    code.rewriteConstant(i, m_constants[value]);
+                }
+            } else if (holder != NONE && numbers[holder] == value) {
+                // The assigned variable may already hold the value, as in x = x + 0: the line becomes x = x
+                code.rewrite(i, Code.ADD, holder);
+            } else {
+                m_holders[value] = assign;
+            }
+            numbers[assign] = value;
+        }
+    }
+
+    // The number of an operand, numbering a variable read before its first assignment and a constant on first use
+    private int valueOf(int operand, boolean constant, int[] numbers, int[] constantNumbers) {
+        if (constant) {
+            if (constantNumbers[operand] == NONE) {
+                constantNumbers[operand] = newValue();
+                m_constants[constantNumbers[operand]] = operand;
+            }
+            return constantNumbers[operand];
+        }
+        if (numbers[operand] == NONE) {
+            numbers[operand] = newValue();
+            m_holders[numbers[operand]] = operand;
+        }
+        return numbers[operand];
+    }
+
+    private int newValue() {
+        if (m_valueCount == m_holders.length) {
+            m_holders = Arrays.copyOf(m_holders, m_valueCount * 2);
+            m_constants = Arrays.copyOf(m_constants, m_valueCount * 2);
+        }
+        m_holders[m_valueCount] = NONE;
+        m_constants[m_valueCount] = NONE;
+        return m_valueCount++;
+    }
+
+    // The value of the operand left unchanged by the operation, or NONE
+    private int identity(Code code, int opcode, int left, int right) {
+        int leftConstant = constantValue(code, left);
+        int rightConstant = constantValue(code, right);
+        switch (opcode) {
+            case Code.ADD:
+                if (rightConstant == 0) return left;
+                if (leftConstant == 0) return right;
+                return NONE;
+            case Code.MUL:
+                if (rightConstant == 1) return left;
+                if (leftConstant == 1) return right;
+                return NONE;
+            case Code.SUB:
+                return rightConstant == 0 ? left : NONE;
+            default:
+                return rightConstant == 1 ? left : NONE;
+        }
+    }
+
+    private int constantValue(Code code, int value) {
+        return m_constants[value] != NONE ? code.symbols().valueOf(m_constants[value]) : NONE;
+    }
+
+    /**
+     * Maps an operator applied to the numbers of its operands to the number of its result, in an open-addressed
+     * table with linear probing that stays at most half full.
+     */
+    private static class ValueTable {
+        private int[] m_keys;
+        private int[] m_values;
+        private int m_size = 0;
+
+        ValueTable(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) {
+                capacity *= 2;
+            }
+            // Three ints of key per slot: the operator, then the left and right numbers
+            m_keys = new int[capacity * 3];
+            m_values = new int[capacity];
+            Arrays.fill(m_values, NONE);
+        }
+
+        private static int hash(int op, int left, int right) {
+            int h = ((op * 31 + left) * 31 + right) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        // Returns the number of the result, numbering it if it is new
+        int valueOf(int op, int left, int right, GlobalValueNumbering numbering) {
+            int mask = m_values.length - 1;
+            int slot = hash(op, left, right) & mask;
+            for (; m_values[slot] != NONE; slot = (slot + 1) & mask) {
+                int key = slot * 3;
+                if (m_keys[key] == op && m_keys[key + 1] == left && m_keys[key + 2] == right) {
+                    return m_values[slot];
+                }
+            }
+
+            int value = numbering.newValue();
+            m_keys[slot * 3] = op;
+            m_keys[slot * 3 + 1] = left;
+            m_keys[slot * 3 + 2] = right;
+            m_values[slot] = value;
+            if (++m_size * 2 > m_values.length) {
+                grow();
+            }
+            return value;
+        }
+
+        private void grow() {
+            int[] keys = m_keys;
+            int[] values = m_values;
+            m_keys = new int[keys.length * 2];
+            m_values = new int[values.length * 2];
+            Arrays.fill(m_values, NONE);
+            int mask = m_values.length - 1;
+            for (int old = 0; old < values.length; old++) {
+                if (values[old] == NONE) continue;
+                int slot = hash(keys[old * 3], keys[old * 3 + 1], keys[old * 3 + 2]) & mask;
+                while (m_values[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                System.arraycopy(keys, old * 3, m_keys, slot * 3, 3);
+                m_values[slot] = values[old];
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package analyzer.opt;
+
+import analyzer.ir.Code;
+import analyzer.util.IntList;
+
+/**
+ * A transformation of the three-address code, run on the collected code before a visitor analyses it.
+ * A pass keeps the values of the returned variables, which are the only ones observable after the code.
+ */
+public interface Pass {
+    /**
+     * @param returns The variables returned by the code, that the pass may rename.
+     */
+    void run(Code code, IntList returns);
+}
@@ -0,0 +1,71 @@
+package analyzer.opt;
+
+import analyzer.ir.Code;
+import analyzer.ir.SymbolTable;
+import analyzer.util.IntList;
+
+/**
+ * Puts the code in static single assignment form: every line assigns a new version of its variable, named
+ * xv1, xv2, ... after the variable x, and every use is renamed to the version reaching it. The names are made of
+ * letters and digits only, as the simulator reads them when a version is spilled to memory, and never look like a
+ * temporary t0, t1, ... Each variable then has a single definition, so the VariableIndex of the code gives its
+ * def-use edges and an analysis can follow them instead of computing a set per line.
+ * The renaming is one forward pass with the current version of each variable on top of its rename stack. The code
+ * is a single block, so the stacks are never popped and no phi node is needed: a version always reaches the end.
+ * The values before the code and the returned ones are read and written in memory under the names of the
+ * variables, so the last assignment of a variable keeps its name. The only exception to single assignment is a
+ * returned variable also read before its first assignment: its entry value keeps the name until then.
+ */
+public class SsaConstruction implements Pass {
+
+    @Override
+    public void run(Code code, IntList returns) {
+        int variableCount = code.variableCount();
+        int[] remaining = new int[variableCount];
+        for (int i = 0; i < code.size(); i++) {
+            remaining[code.dest(i)]++;
+        }
+        boolean[] returned = new boolean[variableCount];
+        for (int i = 0; i < returns.size(); i++) {
+            returned[returns.get(i)] = true;
+        }
+
+        int[] stacks = new int[variableCount];
+        boolean[] assigned = new boolean[variableCount];
+        boolean[] readOnEntry = new boolean[variableCount];
+        int[] versions = new int[variableCount];
+        for (int variable = 0; variable < variableCount; variable++) {
+            stacks[variable] = variable;
+        }
+
+        for (int i = 0; i < code.size(); i++) {
+            int left = code.leftVariable(i);
+            if (left != Code.NONE) {
+                readOnEntry[left] |= !assigned[left];
+                code.setLeftVariable(i, stacks[left]);
+            }
+            int right = code.rightVariable(i);
+            if (right != Code.NONE) {
+                readOnEntry[right] |= !assigned[right];
+                code.setRightVariable(i, stacks[right]);
+            }
+
+            int assign = code.dest(i);
+            assigned[assign] = true;
+            boolean last = --remaining[assign] == 0;
+            int version = last && (returned[assign] || !readOnEntry[assign])
+                    ? assign : newVersion(code, assign, versions);
+            code.setDest(i, version);
+            stacks[assign] = version;
+        }
+    }
+
+    // Numbers a new version of the variable, skipping the names already used by the program
+    private static int newVersion(Code code, int variable, int[] versions) {
+        String name;
+        do {
+            name = code.name(variable) + "v" + ++versions[variable];
+        } while (code.symbols().idOf(name) != SymbolTable.NONE);
+        return code.variable(name);
+    }
+}
@@ -0,0 +1,40 @@
+package analyzer.regalloc;
+
+/**
+ * The result of a register allocation: the register of every variable, or SPILLED if it stays in memory.
+ */
+public class Allocation {
+    public static final int SPILLED = -1;
+
+    private final int[] m_registers;
+    private final int m_registerCount;
+
+    public Allocation(int[] registers, int registerCount) {
+        m_registers = registers;
+        m_registerCount = registerCount;
+    }
+
+    public int registerOf(int variable) {
+        return m_registers[variable];
+    }
+
+    public boolean isSpilled(int variable) {
+        return m_registers[variable] == SPILLED;
+    }
+
+    public int variableCount() {
+        return m_registers.length;
+    }
+
+    public int registerCount() {
+        return m_registerCount;
+    }
+
+    public int spillCount() {
+        int count = 0;
+        for (int register : m_registers) {
+            if (register == SPILLED) count++;
+        }
+        return count;
+    }
+}
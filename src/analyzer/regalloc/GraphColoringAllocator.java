@@ -0,0 +1,107 @@
+package analyzer.regalloc;
+
+import analyzer.dataflow.Liveness;
+import analyzer.util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * A Chaitin/Briggs register allocator coloring the interference graph with as many colors as registers.
+ * Nodes with fewer neighbours than registers are simplified first. When none is left, the node with the lowest
+ * spill cost per neighbour is pushed optimistically and only spilled if its neighbours really use every color.
+ * The spill cost of a variable is its number of definitions and uses, the memory accesses a spill would add.
+ */
+public class GraphColoringAllocator implements RegisterAllocator {
+
+    @Override
+    public Allocation allocate(Liveness liveness, int registerCount) {
+        InterferenceGraph graph = InterferenceGraph.build(liveness);
+        int[] costs = spillCosts(liveness);
+        IntList stack = simplify(graph, costs, registerCount);
+        return new Allocation(select(graph, stack, registerCount), registerCount);
+    }
+
+    private static int[] spillCosts(Liveness liveness) {
+        int[] costs = new int[liveness.variableCount()];
+        for (int line = 0; line < liveness.lineCount(); line++) {
+            costs[liveness.def(line)]++;
+            if (liveness.left(line) != Liveness.NONE) costs[liveness.left(line)]++;
+            if (liveness.right(line) != Liveness.NONE) costs[liveness.right(line)]++;
+        }
+        return costs;
+    }
+
+    // Removes every node from the graph and returns them in the order they must be colored (last first)
+    private static IntList simplify(InterferenceGraph graph, int[] costs, int registerCount) {
+        int size = graph.size();
+        int[] degrees = new int[size];
+        boolean[] removed = new boolean[size];
+        IntList lowDegree = new IntList();
+        for (int node = 0; node < size; node++) {
+            degrees[node] = graph.degree(node);
+            if (degrees[node] < registerCount) lowDegree.add(node);
+        }
+
+        IntList stack = new IntList(size);
+        int remaining = size;
+        while (remaining > 0) {
+            int node;
+            if (!lowDegree.isEmpty()) {
+                node = lowDegree.removeLast();
+            } else {
+                node = spillCandidate(degrees, removed, costs);
+            }
+            removed[node] = true;
+            remaining--;
+            stack.add(node);
+
+            IntList neighbours = graph.neighbours(node);
+            for (int i = 0; i < neighbours.size(); i++) {
+                int neighbour = neighbours.get(i);
+                if (!removed[neighbour] && --degrees[neighbour] == registerCount - 1) {
+                    lowDegree.add(neighbour);
+                }
+            }
+        }
+        return stack;
+    }
+
+    private static int spillCandidate(int[] degrees, boolean[] removed, int[] costs) {
+        int best = -1;
+        for (int node = 0; node < degrees.length; node++) {
+            if (removed[node]) continue;
+            // costs[node] / degrees[node] < costs[best] / degrees[best], without the divisions
+            if (best < 0 || (long) costs[node] * degrees[best] < (long) costs[best] * degrees[node]) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    private static int[] select(InterferenceGraph graph, IntList stack, int registerCount) {
+        int[] registers = new int[graph.size()];
+        boolean[] colored = new boolean[graph.size()];
+        boolean[] used = new boolean[registerCount];
+        while (!stack.isEmpty()) {
+            int node = stack.removeLast();
+            Arrays.fill(used, false);
+            IntList neighbours = graph.neighbours(node);
+            for (int i = 0; i < neighbours.size(); i++) {
+                int neighbour = neighbours.get(i);
+                if (colored[neighbour] && registers[neighbour] != Allocation.SPILLED) {
+                    used[registers[neighbour]] = true;
+                }
+            }
+
+            registers[node] = Allocation.SPILLED;
+            for (int register = 0; register < registerCount; register++) {
+                if (!used[register]) {
+                    registers[node] = register;
+                    break;
+                }
+            }
+            colored[node] = true;
+        }
+        return registers;
+    }
+}
@@ -0,0 +1,84 @@
+package analyzer.regalloc;
+
+import analyzer.dataflow.BitVector;
+import analyzer.dataflow.Liveness;
+import analyzer.util.IntList;
+
+/**
+ * The interference graph of the variables: two variables interfere if one is defined while the other is live.
+ * Edges are kept twice, in a triangular bit matrix for constant-time tests and in adjacency lists to walk the
+ * neighbours of a node.
+ */
+public class InterferenceGraph {
+    private final int m_size;
+    private final long[] m_matrix;
+    private final IntList[] m_adjacency;
+
+    public InterferenceGraph(int size) {
+        m_size = size;
+        m_matrix = new long[(int) ((bitIndex(size, 0) + 63) >>> 6)];
+        m_adjacency = new IntList[size];
+        for (int i = 0; i < size; i++) {
+            m_adjacency[i] = new IntList();
+        }
+    }
+
+    /**
+     * Builds the graph of a code from its liveness. A defined variable interferes with every variable live after
+     * its definition, and the variables live at the entry of the code interfere with each other.
+     */
+    public static InterferenceGraph build(Liveness liveness) {
+        InterferenceGraph graph = new InterferenceGraph(liveness.variableCount());
+        for (int line = 0; line < liveness.lineCount(); line++) {
+            int def = liveness.def(line);
+            BitVector out = liveness.out(line);
+            for (int v = out.nextSetBit(0); v >= 0; v = out.nextSetBit(v + 1)) {
+                graph.addEdge(def, v);
+            }
+        }
+        if (liveness.lineCount() > 0) {
+            BitVector entry = liveness.in(0);
+            for (int a = entry.nextSetBit(0); a >= 0; a = entry.nextSetBit(a + 1)) {
+                for (int b = entry.nextSetBit(a + 1); b >= 0; b = entry.nextSetBit(b + 1)) {
+                    graph.addEdge(a, b);
+                }
+            }
+        }
+        return graph;
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public void addEdge(int a, int b) {
+        if (a == b) return;
+        long bit = a > b ? bitIndex(a, b) : bitIndex(b, a);
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        if ((m_matrix[word] & mask) != 0) return;
+
+        m_matrix[word] |= mask;
+        m_adjacency[a].add(b);
+        m_adjacency[b].add(a);
+    }
+
+    public boolean interferes(int a, int b) {
+        if (a == b) return false;
+        long bit = a > b ? bitIndex(a, b) : bitIndex(b, a);
+        return (m_matrix[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    public int degree(int node) {
+        return m_adjacency[node].size();
+    }
+
+    public IntList neighbours(int node) {
+        return m_adjacency[node];
+    }
+
+    // Position of the edge (high, low) with high > low in the lower triangle of the matrix
+    private static long bitIndex(int high, int low) {
+        return (long) high * (high - 1) / 2 + low;
+    }
+}
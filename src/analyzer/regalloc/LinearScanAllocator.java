@@ -0,0 +1,154 @@
+package analyzer.regalloc;
+
+import analyzer.dataflow.BitVector;
+import analyzer.dataflow.Liveness;
+import analyzer.util.IntList;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * A linear-scan register allocator for large straight-line codes, which never builds the interference graph.
+ * Each variable gets one live interval over the positions of the code: line i reads its operands at 2i and writes
+ * its result at 2i + 1, so a variable read for the last time can give its register to the result of the same line.
+ * The intervals are scanned by start while the active ones are kept ordered by end, so the allocation runs in
+ * O(n log R). When no register is free, the variable whose next read is the furthest away is spilled, as the
+ * optimal replacement policy would: the active intervals are also kept ordered by their next read, which moves as
+ * the scan passes their reads, every read moving it once. Between variables read next at the same line, the one
+ * numbered last is spilled. A variable assigned again keeps its register over the lines where it is dead.
+ */
+public class LinearScanAllocator implements RegisterAllocator {
+    private static final int UNSET = Integer.MIN_VALUE;
+    private static final int ENTRY = -1;
+    private static final int NO_USE = Integer.MAX_VALUE;
+
+    @Override
+    public Allocation allocate(Liveness liveness, int registerCount) {
+        int[] starts = new int[liveness.variableCount()];
+        int[] ends = new int[liveness.variableCount()];
+        IntList[] uses = new IntList[liveness.variableCount()];
+        int[] order = computeIntervals(liveness, starts, ends, uses);
+        // The index in its uses of the next use of each variable, which only moves forward with the scan
+        int[] cursors = new int[liveness.variableCount()];
+        // The next use each active interval is keyed by in nextUses, or UNSET for the others
+        int[] keyedUses = new int[liveness.variableCount()];
+        Arrays.fill(keyedUses, UNSET);
+
+        int[] registers = new int[liveness.variableCount()];
+        Arrays.fill(registers, Allocation.SPILLED);
+        IntList free = new IntList(registerCount);
+        for (int register = registerCount - 1; register >= 0; register--) {
+            free.add(register);
+        }
+
+        // The active intervals keyed by (end, variable) so the first one expires first, and by (next use, variable)
+        // so the last one is the one needed again the latest
+        TreeSet<Long> active = new TreeSet<>();
+        TreeSet<Long> nextUses = new TreeSet<>();
+        int line = 0;
+        for (int variable : order) {
+            int position = starts[variable];
+            while (!active.isEmpty() && ends[variableOf(active.first())] < position) {
+                int expired = variableOf(active.pollFirst());
+                nextUses.remove(key(keyedUses[expired], expired));
+                keyedUses[expired] = UNSET;
+                free.add(registers[expired]);
+            }
+            // The reads passed since the last interval move the next use of the active variables they read
+            for (; 2 * line < position; line++) {
+                advance(liveness.left(line), position, uses, cursors, keyedUses, nextUses);
+                advance(liveness.right(line), position, uses, cursors, keyedUses, nextUses);
+            }
+
+            int nextUse = nextUse(variable, position, uses, cursors);
+            if (!free.isEmpty()) {
+                registers[variable] = free.removeLast();
+            } else if (!nextUses.isEmpty() && keyedUses[variableOf(nextUses.last())] > nextUse) {
+                int spilled = variableOf(nextUses.pollLast());
+                active.remove(key(ends[spilled], spilled));
+                keyedUses[spilled] = UNSET;
+                registers[variable] = registers[spilled];
+                registers[spilled] = Allocation.SPILLED;
+            } else {
+                continue;
+            }
+            active.add(key(ends[variable], variable));
+            nextUses.add(key(nextUse, variable));
+            keyedUses[variable] = nextUse;
+        }
+        return new Allocation(registers, registerCount);
+    }
+
+    // Fills the interval and the read positions of every variable and returns the variables ordered by the start of
+    // their interval
+    private static int[] computeIntervals(Liveness liveness, int[] starts, int[] ends, IntList[] uses) {
+        Arrays.fill(starts, UNSET);
+        Arrays.fill(ends, UNSET);
+        for (int variable = 0; variable < uses.length; variable++) {
+            uses[variable] = new IntList();
+        }
+
+        IntList entry = new IntList();
+        IntList defined = new IntList();
+        for (int line = 0; line < liveness.lineCount(); line++) {
+            use(liveness.left(line), 2 * line, starts, ends, uses, entry);
+            use(liveness.right(line), 2 * line, starts, ends, uses, entry);
+
+            int def = liveness.def(line);
+            if (starts[def] == UNSET) {
+                starts[def] = 2 * line + 1;
+                defined.add(def);
+            }
+            ends[def] = Math.max(ends[def], 2 * line + 1);
+        }
+        BitVector exit = liveness.exit();
+        for (int variable = exit.nextSetBit(0); variable >= 0; variable = exit.nextSetBit(variable + 1)) {
+            use(variable, 2 * liveness.lineCount(), starts, ends, uses, entry);
+        }
+
+        int[] order = new int[entry.size() + defined.size()];
+        for (int i = 0; i < entry.size(); i++) {
+            order[i] = entry.get(i);
+        }
+        for (int i = 0; i < defined.size(); i++) {
+            order[entry.size() + i] = defined.get(i);
+        }
+        return order;
+    }
+
+    private static void use(int variable, int position, int[] starts, int[] ends, IntList[] uses, IntList entry) {
+        if (variable == Liveness.NONE) return;
+        if (starts[variable] == UNSET) {
+            starts[variable] = ENTRY;
+            entry.add(variable);
+        }
+        ends[variable] = Math.max(ends[variable], position);
+        uses[variable].add(position);
+    }
+
+    // The first read of the variable at or after the position, or NO_USE when its value is not read again
+    private static int nextUse(int variable, int position, IntList[] uses, int[] cursors) {
+        IntList reads = uses[variable];
+        while (cursors[variable] < reads.size() && reads.get(cursors[variable]) < position) {
+            cursors[variable]++;
+        }
+        return cursors[variable] < reads.size() ? reads.get(cursors[variable]) : NO_USE;
+    }
+
+    // Keys an active variable read before the position by its following read
+    private static void advance(int variable, int position, IntList[] uses, int[] cursors, int[] keyedUses,
+                                TreeSet<Long> nextUses) {
+        if (variable == Liveness.NONE || keyedUses[variable] == UNSET || keyedUses[variable] >= position) return;
+        nextUses.remove(key(keyedUses[variable], variable));
+        keyedUses[variable] = nextUse(variable, position, uses, cursors);
+        nextUses.add(key(keyedUses[variable], variable));
+    }
+
+    private static long key(int end, int variable) {
+        return ((long) end << 32) | variable;
+    }
+
+    private static int variableOf(long key) {
+        return (int) key;
+    }
+}
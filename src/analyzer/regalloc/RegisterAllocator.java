@@ -0,0 +1,10 @@
+package analyzer.regalloc;
+
+import analyzer.dataflow.Liveness;
+
+/**
+ * Assigns the variables of a code to a limited number of registers, spilling the ones that do not fit.
+ */
+public interface RegisterAllocator {
+    Allocation allocate(Liveness liveness, int registerCount);
+}
@@ -0,0 +1,54 @@
+package analyzer.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints, to avoid boxing in the indexes built over large programs.
+ */
+public class IntList {
+    private int[] m_values;
+    private int m_size = 0;
+
+    public IntList() {
+        this(4);
+    }
+
+    public IntList(int capacity) {
+        m_values = new int[Math.max(capacity, 1)];
+    }
+
+    public int size() {
+        return m_size;
+    }
+
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    public int get(int i) {
+        return m_values[i];
+    }
+
+    public void set(int i, int value) {
+        m_values[i] = value;
+    }
+
+    public void add(int value) {
+        if (m_size == m_values.length) {
+            m_values = Arrays.copyOf(m_values, m_size * 2);
+        }
+        m_values[m_size++] = value;
+    }
+
+    public int removeLast() {
+        return m_values[--m_size];
+    }
+
+    public void clear() {
+        m_size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(m_values, m_size);
+    }
+}
@@ -17,6 +17,9 @@ public class AbstractVisitor implements ParserVisitor {
         return null;
     }
 
+    @Override
+    public Object visit(ASTNumberRegister node, Object data) { return null; }
+
     @Override
     public Object visit(ASTReturnStmt node, Object data) { return null; }
 
@@ -59,4 +62,19 @@ public class AbstractVisitor implements ParserVisitor {
     public Object visit(ASTIntValue node, Object data) {
         return null;
     }
+
+    @Override
+    public Object visit(ASTLiveNode node, Object data) {
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTInNode node, Object data) {
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTOutNode node, Object data) {
+        return null;
+    }
 }
@@ -1,10 +1,13 @@
 package analyzer.visitors;
 
-import analyzer.ast.*;
+import analyzer.dataflow.*;
+import analyzer.ir.Code;
+import analyzer.ir.Expression;
+import analyzer.ir.ExpressionTable;
+import analyzer.util.IntList;
 
 import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This Java code defines a visitor class called AvailableExpressionVisitor for a custom parser.
@@ -12,122 +15,92 @@ import java.util.stream.Collectors;
  * The code includes implementations for various types of assignment statements, such as direct assignment,
  * unary assignment, and assignment with arithmetic operations.
  * */
-public class AvailableExpressionVisitor implements ParserVisitor {
-    private PrintWriter m_writer = null;
-    private final ArrayList<String> RETURNS = new ArrayList<>();
-    private final ArrayList<CodeLine> CODE = new ArrayList<>();
+public class AvailableExpressionVisitor extends CodeVisitor {
+    private final ExpressionTable EXPRESSIONS = new ExpressionTable();
 
-    public AvailableExpressionVisitor(PrintWriter writer) {
-        m_writer = writer;
-    }
-
-    @Override
-    public Object visit(SimpleNode node, Object data) {
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTProgram node, Object data) {
-        node.childrenAccept(this, null);
-
-        computeAvailableExpr();
-        eliminateCommonExpression();
+    // The expression computed by each line, and the expressions available before and after it
+    private int[] LINE_EXPRESSIONS;
+    private BitVector[] AVAIL_IN;
+    private BitVector[] AVAIL_OUT;
 
-        printCode();
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTReturnStmt node, Object data) {
-        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
-            RETURNS.add(((ASTIdentifier) node.jjtGetChild(i)).getValue());
-        }
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTBlock node, Object data) {
-        node.childrenAccept(this, null);
-        return null;
-    }
+    private final DataflowSolver m_solver;
+    private final boolean m_valueNumbering;
+    private GenKillProblem m_problem;
 
-    @Override
-    public Object visit(ASTStmt node, Object data) {
-        node.childrenAccept(this, null);
-        return null;
+    public AvailableExpressionVisitor(PrintWriter writer) {
+        this(writer, new DataflowSolver(), false);
     }
 
-    @Override
-    public Object visit(ASTAssignStmt node, Object data) {
-        String assign = (String) node.jjtGetChild(0).jjtAccept(this, null);
-        String left = (String) node.jjtGetChild(1).jjtAccept(this, null);
-        String right = (String) node.jjtGetChild(2).jjtAccept(this, null);
-        String op = node.getOp();
-
-        CODE.add(new CodeLine(op, assign, left, right));
-
-        return null;
+    public AvailableExpressionVisitor(PrintWriter writer, DataflowSolver solver) {
+        this(writer, solver, false);
     }
 
-    @Override
-    public Object visit(ASTAssignUnaryStmt node, Object data) {
-        String assign = (String) node.jjtGetChild(0).jjtAccept(this, null);
-        String left = (String) node.jjtGetChild(1).jjtAccept(this, null);
-
-        CODE.add(new CodeLine("-", assign, left, ""));
-
-        return null;
+    /**
+     * @param valueNumbering Eliminates the common expressions with a local value numbering instead of the
+     *                       available expressions, which also catches the expressions recomputed through copies.
+     */
+    public AvailableExpressionVisitor(PrintWriter writer, DataflowSolver solver, boolean valueNumbering) {
+        super(writer);
+        m_solver = solver;
+        m_valueNumbering = valueNumbering;
     }
 
-    @Override
-    public Object visit(ASTAssignDirectStmt node, Object data) {
-        String assign = (String) node.jjtGetChild(0).jjtAccept(this, null);
-        String left = (String) node.jjtGetChild(1).jjtAccept(this, null);
-
-        CODE.add(new CodeLine("+", assign, left, ""));
-
-        return null;
+    public DataflowSolver getSolver() {
+        return m_solver;
     }
 
     @Override
-    public Object visit(ASTExpr node, Object data) {
-        return node.jjtGetChild(0).jjtAccept(this, null);
-    }
+    protected void analyze() {
+        computeAvailableExpr();
+        if (m_valueNumbering) {
+            eliminateByValueNumbering();
+        } else {
+            eliminateCommonExpression();
+        }
 
-    @Override
-    public Object visit(ASTIntValue node, Object data) {
-        return "#" + node.getValue();
+        printCode();
     }
 
-    @Override
-    public Object visit(ASTIdentifier node, Object data) {
-        return node.getValue();
+    /**
+     * Gives a dense number to every distinct expression of the code, the ordinal of its interned instance.
+     */
+    private void numberExpressions() {
+        LINE_EXPRESSIONS = new int[CODE.size()];
+        for (int i = 0; i < CODE.size(); i++) {
+            LINE_EXPRESSIONS[i] = EXPRESSIONS.intern(CODE, i).ordinal;
+        }
     }
 
     /**
      * Computes the GEN sets for each line of code.
      */
     public void computeGenSets(){
-        for (CodeLine code : CODE) {
-            Expression lineExpr = new Expression(code.left, code.op, code.right);
-            if (code.ASSIGN.equals(code.left) || code.ASSIGN.equals(code.right)) {
+        for (int i = 0; i < CODE.size(); i++) {
+            int assign = CODE.dest(i);
+            if (assign == CODE.leftVariable(i) || assign == CODE.rightVariable(i)) {
                 continue;
             }
-            code.GEN.add(lineExpr);
+            m_problem.gen(i).set(LINE_EXPRESSIONS[i]);
         }
     }
 
     /**
      * Computes the KILL sets for each line of code.
+     * The expression of a line is killed when its assigned variable is used by another line.
+     * The KILL set only depends on the expression, so the lines of one expression share a single mask.
      */
     public void computeKillSets() {
-        for (CodeLine code : CODE) {
-            for (CodeLine otherCode : CODE) {
-                String assign = code.ASSIGN;
-                if (otherCode != code && (assign.equals(otherCode.left) || assign.equals(otherCode.right))) {
-                        Expression lineExpr = new Expression(code.left, code.op, code.right);
-                        code.KILL.add(lineExpr);
+        VariableIndex index = new VariableIndex(CODE);
+        BitVector[] masks = new BitVector[EXPRESSIONS.size()];
+        for (int i = 0; i < CODE.size(); i++) {
+            IntList users = index.uses(CODE.dest(i));
+            if (users.size() > 1 || (users.size() == 1 && users.get(0) != i)) {
+                int expression = LINE_EXPRESSIONS[i];
+                if (masks[expression] == null) {
+                    masks[expression] = new BitVector(EXPRESSIONS.size());
+                    masks[expression].set(expression);
                 }
+                m_problem.setKill(i, masks[expression]);
             }
         }
     }
@@ -136,134 +109,157 @@ public class AvailableExpressionVisitor implements ParserVisitor {
      * Computes the Available Expression Analysis for the code.
      */
     private void computeAvailableExpr() {
+        numberExpressions();
+        m_problem = new GenKillProblem(Direction.FORWARD, Meet.INTERSECTION, EXPRESSIONS.size(), CODE.size());
         computeGenSets();
         computeKillSets();
-        boolean changes = true;
-        Set<Expression> tmpOut = new HashSet<>();
-        while (changes) {
-            int i = 0;
-            changes = false;
-            for (CodeLine code : CODE) {
-                if(i != 0) {
-                    if (!code.Avail_IN.containsAll(tmpOut)) {
-                        code.Avail_IN.addAll(tmpOut);
-                        changes = true;
-                    }
-                }
-                code.Avail_OUT.addAll(code.Avail_IN);
-                code.Avail_OUT.removeAll(code.KILL);
-                code.Avail_OUT.addAll(code.GEN);
-                tmpOut = code.Avail_OUT;
-                i++;
-            }
+
+        DataflowResult result = m_solver.solve(m_problem, new StraightLineGraph(CODE.size()));
+        AVAIL_IN = new BitVector[CODE.size()];
+        AVAIL_OUT = new BitVector[CODE.size()];
+        for (int i = 0; i < CODE.size(); i++) {
+            AVAIL_IN[i] = result.in(i);
+            AVAIL_OUT[i] = result.out(i);
         }
     }
 
     /**
      * Eliminates common expressions in the code using the Available Expression Analysis.
+     * An available expression is replaced by the last previous line still computing it, found in a table
+     * updated as the lines are rewritten.
      */
     private void eliminateCommonExpression() {
-        for (CodeLine code : CODE) {
-            Expression lineExpr = new Expression(code.left, code.op, code.right);
-            if (code.Avail_IN.contains(lineExpr)) {
-                int index = 0;
-                CodeLine otherCode = CODE.get(index);
-                while (otherCode != code) {
-                    Expression otherLine = new Expression(otherCode.left, otherCode.op, otherCode.right);
-                    if (lineExpr.equals(otherLine)) {
-                        code.left = otherCode.ASSIGN;
-                        code.right = "";
-                    }
-                    index++;
-                    otherCode = CODE.get(index);
+        int[] holders = new int[EXPRESSIONS.size()];
+        Arrays.fill(holders, -1);
+        for (int i = 0; i < CODE.size(); i++) {
+            int lineExpr = LINE_EXPRESSIONS[i];
+            if (lineExpr >= 0 && AVAIL_IN[i].get(lineExpr) && holders[lineExpr] >= 0) {
+                CODE.rewrite(i, CODE.opcode(i), CODE.dest(holders[lineExpr]));
+                // The rewritten line now holds a copy, which only matches an already numbered copy.
+                Expression copy = EXPRESSIONS.lookup(CODE, i);
+                LINE_EXPRESSIONS[i] = copy != null ? copy.ordinal : -1;
+            }
+            if (LINE_EXPRESSIONS[i] >= 0) {
+                holders[LINE_EXPRESSIONS[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * Eliminates common expressions in the code with a local value numbering.
+     * Every operand gets the number of the value it holds, copies included, and each (op, left, right) triple of
+     * value numbers maps to the number of its result. A line computing a value still held by a variable becomes a
+     * copy of that variable.
+     */
+    private void eliminateByValueNumbering() {
+        int[] numbers = new int[CODE.variableCount()];
+        Arrays.fill(numbers, -1);
+        int[] constants = new int[CODE.symbols().constantCount()];
+        Arrays.fill(constants, -1);
+        HashMap<ValueKey, Integer> values = new HashMap<>();
+        ArrayList<ArrayDeque<Integer>> holders = new ArrayList<>();
+
+        for (int i = 0; i < CODE.size(); i++) {
+            int left = valueNumber(numbers, constants, holders, CODE.left(i), CODE.isLeftConstant(i));
+            int value;
+            if (CODE.isCopy(i)) {
+                value = left;
+            } else {
+                int right = CODE.hasRight(i)
+                        ? valueNumber(numbers, constants, holders, CODE.right(i), CODE.isRightConstant(i)) : -1;
+                ValueKey key = new ValueKey(CODE.opcode(i), left, right);
+                Integer known = values.get(key);
+                int holder = known == null ? -1 : currentHolder(numbers, holders.get(known), known);
+                if (holder >= 0) {
+                    CODE.rewrite(i, Code.ADD, holder);
+                    value = known;
+                } else if (known != null) {
+                    value = known;
+                } else {
+                    value = newValue(holders);
+                    values.put(key, value);
                 }
             }
+            numbers[CODE.dest(i)] = value;
+            holders.get(value).add(CODE.dest(i));
+        }
+    }
+
+    private int valueNumber(int[] numbers, int[] constants, ArrayList<ArrayDeque<Integer>> holders,
+                            int operand, boolean constant) {
+        int[] table = constant ? constants : numbers;
+        if (table[operand] < 0) {
+            table[operand] = newValue(holders);
         }
+        return table[operand];
+    }
 
+    private int newValue(ArrayList<ArrayDeque<Integer>> holders) {
+        holders.add(new ArrayDeque<>());
+        return holders.size() - 1;
     }
 
-    public void printCode() {
-        int i = 0;
-        for (CodeLine code : CODE) {
-            String line = code.ASSIGN + " = " + code.left;
-            if (!code.right.isEmpty() && !code.right.equals("#0")) {
-                line += " " + code.op + " " + code.right;
+    // Returns a variable still holding value, dropping the holders that were reassigned since
+    private int currentHolder(int[] numbers, ArrayDeque<Integer> holders, int value) {
+        while (!holders.isEmpty()) {
+            int holder = holders.peekFirst();
+            if (numbers[holder] == value) {
+                return holder;
             }
-            m_writer.println("// Bloc " + i);
-            m_writer.println(line);
-            m_writer.println("// Avail_IN  : " + sortedExpressions(code.Avail_IN));
-            m_writer.println("// Avail_OUT : " + sortedExpressions(code.Avail_OUT));
-            m_writer.println();
-            i++;
+            holders.pollFirst();
         }
+        return -1;
     }
 
-
-    // Helper function to convert a set of Expression objects to a sorted list of strings
-    private List<String> sortedExpressions(Set<Expression> expressions) {
-        return expressions.stream()
-                .map(Expression::toString)
-                .sorted()
-                .collect(Collectors.toList());
+    public void printCode() {
+        for (int i = 0; i < CODE.size(); i++) {
+            m_writer.println("// Bloc " + i);
+            m_writer.println(lineToString(i));
+            m_writer.println("// Avail_IN  : " + sortedExpressions(AVAIL_IN[i]));
+            m_writer.println("// Avail_OUT : " + sortedExpressions(AVAIL_OUT[i]));
+            m_writer.println();
+        }
     }
 
-    /**
-     * A struct to store the data of a code line.
-     */
-    public class CodeLine {
-        public String op;
-        public String ASSIGN;
-        public String left;
-        public String right;
-        public Set<Expression> GEN;
-        public Set<Expression> KILL;
-        public Set<Expression> Avail_IN;
-        public Set<Expression> Avail_OUT;
 
-        public CodeLine(String op, String ASSIGN, String left, String right) {
-            this.op = op;
-            this.ASSIGN = ASSIGN;
-            this.left = left;
-            this.right = right;
-            this.GEN = new HashSet<>();
-            this.KILL = new HashSet<>();
-            this.Avail_IN = new HashSet<>();
-            this.Avail_OUT = new HashSet<>();
+    // Helper function to convert a set of expression ordinals to a sorted list of strings
+    private List<String> sortedExpressions(BitVector expressions) {
+        List<String> names = new ArrayList<>();
+        for (int i = expressions.nextSetBit(0); i >= 0; i = expressions.nextSetBit(i + 1)) {
+            names.add(EXPRESSIONS.get(i).toString(CODE));
         }
+        Collections.sort(names);
+        return names;
     }
 
     /**
-     * A struct to store an arithmetic expression.
+     * The key of the value numbering table: an operator applied to the value numbers of its operands.
+     * The operands of + and * are kept in increasing order, so both orders give the same key.
      */
-    public static class Expression {
-        String left;
-        String op;
-        String right;
-
-        public Expression(String left, String op, String right) {
-            this.left = left;
+    private static class ValueKey {
+        final int op;
+        final int left;
+        final int right;
+        final int hash;
+
+        ValueKey(int op, int left, int right) {
+            boolean swap = Code.isCommutative(op) && right >= 0 && left > right;
             this.op = op;
-            this.right = right;
+            this.left = swap ? right : left;
+            this.right = swap ? left : right;
+            this.hash = (op * 31 + this.left) * 31 + this.right;
         }
 
         @Override
         public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            Expression that = (Expression) obj;
-            return Objects.equals(left, that.left) &&
-                    Objects.equals(op, that.op) &&
-                    Objects.equals(right, that.right);
+            if (!(obj instanceof ValueKey)) return false;
+            ValueKey that = (ValueKey) obj;
+            return left == that.left && right == that.right && op == that.op;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(left, op, right);
-        }
-
-        @Override
-        public String toString() {
-            return left + op + right;
+            return hash;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+package analyzer.visitors;
+
+import analyzer.ast.*;
+import analyzer.dataflow.BitVector;
+import analyzer.dataflow.DataflowSolver;
+import analyzer.dataflow.Liveness;
+import analyzer.ir.Code;
+import analyzer.ir.CodeSink;
+import analyzer.ir.SymbolTable;
+import analyzer.opt.Pass;
+import analyzer.util.IntList;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class of the visitors that flatten the program into three-address code and then analyse it.
+ * Direct assignments become "ASSIGN = left + ''" and unary assignments "ASSIGN = left - ''".
+ * Once every line is collected in CODE, the passes added to the visitor rewrite it in order, then analyze() is called.
+ * The visitor is also a CodeSink, so it can be given the statements by the streaming parse mode instead of
+ * walking a tree: both ways collect the same CODE.
+ */
+public abstract class CodeVisitor extends AbstractVisitor implements CodeSink {
+    protected PrintWriter m_writer = null;
+    protected final IntList RETURNS = new IntList();
+    protected Code CODE;
+    protected int REGISTERS = -1;
+    private final List<Pass> m_passes = new ArrayList<>();
+
+    public CodeVisitor(PrintWriter writer) {
+        m_writer = writer;
+    }
+
+    /**
+     * Adds a pass run on the code before it is analysed, after the ones already added.
+     */
+    public CodeVisitor addPass(Pass pass) {
+        m_passes.add(pass);
+        return this;
+    }
+
+    /**
+     * Analyses the collected CODE and prints the result.
+     */
+    protected abstract void analyze();
+
+    @Override
+    public void begin(SymbolTable symbols) {
+        CODE = new Code(symbols);
+    }
+
+    @Override
+    public void registers(int count) {
+        REGISTERS = count;
+    }
+
+    // The operands are numbered before the assigned variable, in the order they are read
+    @Override
+    public void statement(int opcode, int dest, int left, boolean leftConstant, int right, boolean rightConstant) {
+        int leftOperand = leftConstant ? left : CODE.variableOf(left);
+        int rightOperand = rightConstant ? right : CODE.variableOf(right);
+        CODE.add(opcode, CODE.variableOf(dest), leftOperand, leftConstant, rightOperand, rightConstant);
+    }
+
+    @Override
+    public void statement(int opcode, int dest, int left, boolean leftConstant) {
+        int leftOperand = leftConstant ? left : CODE.variableOf(left);
+        CODE.add(opcode, CODE.variableOf(dest), leftOperand, leftConstant);
+    }
+
+    @Override
+    public void returns(int identifier) {
+        RETURNS.add(CODE.variableOf(identifier));
+    }
+
+    @Override
+    public void end() {
+        for (Pass pass : m_passes) {
+            pass.run(CODE, RETURNS);
+        }
+        analyze();
+    }
+
+    @Override
+    public Object visit(ASTProgram node, Object data) {
+        begin(node.getSymbols());
+        node.childrenAccept(this, null);
+        end();
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTNumberRegister node, Object data) {
+        registers(((ASTIntValue) node.jjtGetChild(0)).getValue());
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTReturnStmt node, Object data) {
+        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+            returns(symbolOf(node.jjtGetChild(i)));
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTBlock node, Object data) {
+        node.childrenAccept(this, null);
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTStmt node, Object data) {
+        node.childrenAccept(this, null);
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTAssignStmt node, Object data) {
+        Node left = operandOf(node.jjtGetChild(1));
+        Node right = operandOf(node.jjtGetChild(2));
+        statement(Code.opcodeOf(node.getOp()), symbolOf(node.jjtGetChild(0)), symbolOf(left),
+                left instanceof ASTIntValue, symbolOf(right), right instanceof ASTIntValue);
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTAssignUnaryStmt node, Object data) {
+        Node left = operandOf(node.jjtGetChild(1));
+        statement(Code.SUB, symbolOf(node.jjtGetChild(0)), symbolOf(left), left instanceof ASTIntValue);
+        return null;
+    }
+
+    @Override
+    public Object visit(ASTAssignDirectStmt node, Object data) {
+        Node left = operandOf(node.jjtGetChild(1));
+        statement(Code.ADD, symbolOf(node.jjtGetChild(0)), symbolOf(left), left instanceof ASTIntValue);
+        return null;
+    }
+
+    // The identifier or the constant of an ASTExpr
+    private static Node operandOf(Node expr) {
+        return expr.jjtGetChild(0);
+    }
+
+    // The number of an identifier or a constant in the symbol table, interned here for a node built outside the parser
+    private int symbolOf(Node operand) {
+        if (operand instanceof ASTIntValue) {
+            ASTIntValue constant = (ASTIntValue) operand;
+            int symbol = constant.getSymbol();
+            return symbol != SymbolTable.NONE ? symbol : CODE.symbols().constant(constant.getValue());
+        }
+        ASTIdentifier identifier = (ASTIdentifier) operand;
+        int symbol = identifier.getSymbol();
+        return symbol != SymbolTable.NONE ? symbol : CODE.symbols().identifier(identifier.getValue());
+    }
+
+    /**
+     * Computes the liveness of CODE, the returned variables are live at the exit.
+     */
+    protected Liveness computeLiveness(DataflowSolver solver) {
+        int[] defs = new int[CODE.size()];
+        int[] lefts = new int[CODE.size()];
+        int[] rights = new int[CODE.size()];
+        for (int i = 0; i < CODE.size(); i++) {
+            lefts[i] = CODE.leftVariable(i);
+            rights[i] = CODE.rightVariable(i);
+            defs[i] = CODE.dest(i);
+        }
+
+        BitVector exit = new BitVector(CODE.variableCount());
+        for (int i = 0; i < RETURNS.size(); i++) {
+            exit.set(RETURNS.get(i));
+        }
+        return new Liveness(CODE.variableCount(), defs, lefts, rights, exit, solver);
+    }
+
+    /**
+     * Prints a line the way every visitor shows it, an empty or "#0" right operand is omitted.
+     */
+    protected String lineToString(int line) {
+        String text = CODE.name(CODE.dest(line)) + " = " + CODE.leftOperand(line);
+        if (CODE.hasRight(line) && !(CODE.isRightConstant(line) && CODE.symbols().valueOf(CODE.right(line)) == 0)) {
+            text += " " + Code.operatorOf(CODE.opcode(line)) + " " + CODE.rightOperand(line);
+        }
+        return text;
+    }
+
+    /**
+     * Prints a line back in the syntax of the language, so it can be parsed again.
+     */
+    protected String sourceOf(int line) {
+        return sourceOf(line, null);
+    }
+
+    /**
+     * Prints a line back in the syntax of the language, with names[v] printed for the variable v when
+     * names is given.
+     */
+    protected String sourceOf(int line, String[] names) {
+        String assign = nameOf(CODE.dest(line), names);
+        String left = CODE.isLeftConstant(line) ? constantOf(CODE.left(line)) : nameOf(CODE.left(line), names);
+        if (!CODE.hasRight(line)) {
+            String prefix = CODE.opcode(line) == Code.SUB ? "minus " : "";
+            return assign + " = " + prefix + left;
+        }
+        String right = CODE.isRightConstant(line) ? constantOf(CODE.right(line)) : nameOf(CODE.right(line), names);
+        return assign + " = " + left + " " + Code.operatorOf(CODE.opcode(line)) + " " + right;
+    }
+
+    private String constantOf(int constant) {
+        return String.valueOf(CODE.symbols().valueOf(constant));
+    }
+
+    private String nameOf(int variable, String[] names) {
+        return names != null ? names[variable] : CODE.name(variable);
+    }
+
+    /**
+     * Prints the return statement in the syntax of the language.
+     */
+    protected String returnSource() {
+        return returnSource(null);
+    }
+
+    protected String returnSource(String[] names) {
+        if (RETURNS.isEmpty()) return "return";
+        StringBuilder text = new StringBuilder("return ");
+        for (int i = 0; i < RETURNS.size(); i++) {
+            if (i > 0) text.append(", ");
+            text.append(nameOf(RETURNS.get(i), names));
+        }
+        return text.toString();
+    }
+}
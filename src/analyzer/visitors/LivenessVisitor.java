@@ -0,0 +1,107 @@
+package analyzer.visitors;
+
+import analyzer.ast.*;
+import analyzer.dataflow.*;
+
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * This visitor computes the live variables before and after each line of code with a backward analysis.
+ * The variables are numbered once so the analysis runs on bit vectors, and the variables returned by the program
+ * are live at its exit. The result fills an ASTLiveNode (with its ASTInNode and ASTOutNode) per line, and the code
+ * is printed back followed by its LIVE section, which the grammar can parse again.
+ * */
+public class LivenessVisitor extends CodeVisitor {
+    private final ArrayList<ASTLiveNode> LIVES = new ArrayList<>();
+
+    private final DataflowSolver m_solver;
+
+    public LivenessVisitor(PrintWriter writer) {
+        this(writer, new DataflowSolver());
+    }
+
+    public LivenessVisitor(PrintWriter writer, DataflowSolver solver) {
+        super(writer);
+        m_solver = solver;
+    }
+
+    public DataflowSolver getSolver() {
+        return m_solver;
+    }
+
+    /**
+     * The live variables of each line, available once the program is visited.
+     */
+    public List<ASTLiveNode> getLives() {
+        return LIVES;
+    }
+
+    @Override
+    protected void analyze() {
+        Liveness liveness = computeLiveness(m_solver);
+        fillLiveNodes(liveness);
+        printCode();
+    }
+
+    /**
+     * Creates the LIVE node of each line, filled with its sorted live variables.
+     */
+    private void fillLiveNodes(Liveness result) {
+        for (int i = 0; i < CODE.size(); i++) {
+            ASTInNode in = new ASTInNode(ParserTreeConstants.JJTINNODE);
+            addChild(in, indexNode(i));
+            for (String var : sortedVariables(result.in(i))) {
+                in.addLive(var);
+            }
+
+            ASTOutNode out = new ASTOutNode(ParserTreeConstants.JJTOUTNODE);
+            addChild(out, indexNode(i));
+            for (String var : sortedVariables(result.out(i))) {
+                out.addLive(var);
+            }
+
+            ASTLiveNode live = new ASTLiveNode(ParserTreeConstants.JJTLIVENODE);
+            addChild(live, in);
+            addChild(live, out);
+            LIVES.add(live);
+        }
+    }
+
+    private static ASTIntValue indexNode(int index) {
+        ASTIntValue value = new ASTIntValue(ParserTreeConstants.JJTINTVALUE);
+        value.setValue(index);
+        return value;
+    }
+
+    private static void addChild(Node parent, Node child) {
+        child.jjtSetParent(parent);
+        parent.jjtAddChild(child, parent.jjtGetNumChildren());
+    }
+
+    public void printCode() {
+        for (int i = 0; i < CODE.size(); i++) {
+            m_writer.println(sourceOf(i));
+        }
+        m_writer.println(returnSource());
+        m_writer.println("LIVE --->");
+        for (ASTLiveNode live : LIVES) {
+            ASTInNode in = (ASTInNode) live.jjtGetChild(0);
+            ASTOutNode out = (ASTOutNode) live.jjtGetChild(1);
+            m_writer.println("NODE");
+            m_writer.println("IN: " + (in.getStmtIndex() + " " + String.join(", ", in.getLive())).trim());
+            m_writer.println("OUT: " + (out.getStmtIndex() + " " + String.join(", ", out.getLive())).trim());
+        }
+        m_writer.println("<--- LIVE");
+    }
+
+    // Helper function to convert a set of variable numbers to a sorted list of names
+    private List<String> sortedVariables(BitVector variables) {
+        List<String> names = new ArrayList<>();
+        for (int i = variables.nextSetBit(0); i >= 0; i = variables.nextSetBit(i + 1)) {
+            names.add(CODE.name(i));
+        }
+        Collections.sort(names);
+        return names;
+    }
+}
@@ -0,0 +1,238 @@
+package analyzer.visitors;
+
+import analyzer.dataflow.BitVector;
+import analyzer.dataflow.DataflowSolver;
+import analyzer.dataflow.Liveness;
+import analyzer.ir.Code;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This visitor translates the code into the machine code of the simulator (LD, ST, ADD, SUB, MUL, DIV).
+ * The dead code is eliminated first, then each line is translated with the getReg algorithm of the Dragon book:
+ * a register descriptor tracks the variables held by each register and an address descriptor tracks whether the
+ * value of a variable is up to date in memory. A value already in a register is never loaded again, and a value is
+ * only stored when its register is taken while it is still live, or at the end for the returned variables.
+ * The code uses the registers declared by NUMBER_OF_REGISTER_AVAILABLE, or one per variable without declaration.
+ * */
+public class PrintMachineCodeVisitor extends CodeVisitor {
+    private static final int MIN_REGISTERS = 2;
+
+    private final DataflowSolver m_solver = new DataflowSolver();
+    private final ArrayList<String> MACHINE_CODE = new ArrayList<>();
+
+    // The register descriptors, the variables whose current value is held by each register
+    private BitVector[] REGISTER_DESCRIPTORS;
+    // The address descriptors, whether the memory holds the current value of each variable
+    private boolean[] IN_MEMORY;
+
+    public PrintMachineCodeVisitor(PrintWriter writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void analyze() {
+        eliminateDeadCode(computeLiveness(m_solver));
+        generateCode(computeLiveness(m_solver));
+        printCode();
+    }
+
+    /**
+     * Removes the lines assigning a variable which is not live after them, in one backward pass, and the copies of
+     * a variable to itself, which change nothing.
+     */
+    private void eliminateDeadCode(Liveness liveness) {
+        BitVector live = new BitVector(liveness.exit());
+        BitVector optimizedCode = new BitVector(CODE.size());
+        for (int i = CODE.size() - 1; i >= 0; i--) {
+            if (!live.get(liveness.def(i))) continue;
+            if (CODE.isCopy(i) && liveness.left(i) == liveness.def(i)) continue;
+
+            optimizedCode.set(i);
+            live.clear(liveness.def(i));
+            if (liveness.left(i) != Liveness.NONE) live.set(liveness.left(i));
+            if (liveness.right(i) != Liveness.NONE) live.set(liveness.right(i));
+        }
+        CODE.retain(optimizedCode);
+    }
+
+    private void generateCode(Liveness liveness) {
+        int registers = Math.max(REGISTERS >= 0 ? REGISTERS : CODE.variableCount(), MIN_REGISTERS);
+        REGISTER_DESCRIPTORS = new BitVector[registers];
+        for (int r = 0; r < registers; r++) {
+            REGISTER_DESCRIPTORS[r] = new BitVector(CODE.variableCount());
+        }
+        IN_MEMORY = new boolean[CODE.variableCount()];
+        Arrays.fill(IN_MEMORY, true);
+
+        for (int i = 0; i < CODE.size(); i++) {
+            MACHINE_CODE.add("// " + sourceOf(i));
+            int assign = liveness.def(i);
+            // The previous value of the assigned variable is never needed after the line, even if it is live-out
+            BitVector liveAfter = new BitVector(liveness.out(i));
+            liveAfter.clear(assign);
+            // While the operands are loaded, the operands of the line are needed as well
+            BitVector needed = new BitVector(liveAfter);
+            if (liveness.left(i) != Liveness.NONE) needed.set(liveness.left(i));
+            if (liveness.right(i) != Liveness.NONE) needed.set(liveness.right(i));
+
+            if (CODE.isCopy(i) && !CODE.isLeftConstant(i)) {
+                // A copy only adds the variable to the register already holding the value
+                int source = loadOperand(CODE.left(i), needed, -1);
+                assignRegister(assign, source, true);
+                continue;
+            }
+
+            if (CODE.isCopy(i)) {
+                int result = getRegister(liveAfter, -1);
+                MACHINE_CODE.add("LD R" + result + ", " + CODE.leftOperand(i));
+                assignRegister(assign, result, false);
+                continue;
+            }
+
+            // A negation is computed as 0 - left
+            boolean negation = !CODE.hasRight(i);
+            String op = negation ? "SUB" : instructionOf(CODE.opcode(i));
+            int left = negation ? Liveness.NONE : liveness.left(i);
+            int right = negation ? liveness.left(i) : liveness.right(i);
+            String leftConstant = negation ? "#0" : CODE.leftOperand(i);
+            String rightConstant = negation ? CODE.leftOperand(i) : CODE.rightOperand(i);
+
+            int rightHolder = right != Liveness.NONE ? registerHolding(right) : -1;
+            int leftRegister = left != Liveness.NONE ? loadOperand(left, needed, rightHolder) : -1;
+            int rightRegister = right != Liveness.NONE ? loadOperand(right, needed, leftRegister) : -1;
+            int result = resultRegister(liveAfter, leftRegister, rightRegister);
+
+            MACHINE_CODE.add(op + " R" + result + ", " + operandOf(leftConstant, leftRegister) + ", "
+                    + operandOf(rightConstant, rightRegister));
+            assignRegister(assign, result, false);
+        }
+
+        // The returned variables must be up to date in memory at the end of the code
+        for (int i = 0; i < RETURNS.size(); i++) {
+            int variable = RETURNS.get(i);
+            if (!IN_MEMORY[variable]) {
+                MACHINE_CODE.add("ST " + CODE.name(variable) + ", R" + registerHolding(variable));
+                IN_MEMORY[variable] = true;
+            }
+        }
+    }
+
+    private static String instructionOf(int opcode) {
+        switch (opcode) {
+            case Code.ADD: return "ADD";
+            case Code.SUB: return "SUB";
+            case Code.MUL: return "MUL";
+            default: return "DIV";
+        }
+    }
+
+    private static String operandOf(String constant, int register) {
+        return register >= 0 ? "R" + register : constant;
+    }
+
+    private int registerHolding(int variable) {
+        for (int r = 0; r < REGISTER_DESCRIPTORS.length; r++) {
+            if (REGISTER_DESCRIPTORS[r].get(variable)) return r;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a register holding the operand, loading it from memory if no register holds it yet.
+     */
+    private int loadOperand(int variable, BitVector needed, int pinned) {
+        int register = registerHolding(variable);
+        if (register >= 0) return register;
+
+        register = getRegister(needed, pinned);
+        MACHINE_CODE.add("LD R" + register + ", " + CODE.name(variable));
+        REGISTER_DESCRIPTORS[register].set(variable);
+        return register;
+    }
+
+    /**
+     * Picks the register of the result. An operand register only holding values that are not needed anymore is
+     * reused first, since the operands are read before the result is written.
+     */
+    private int resultRegister(BitVector liveAfter, int leftRegister, int rightRegister) {
+        if (leftRegister >= 0 && isFree(leftRegister, liveAfter)) return leftRegister;
+        if (rightRegister >= 0 && isFree(rightRegister, liveAfter)) return rightRegister;
+        return getRegister(liveAfter, -1);
+    }
+
+    /**
+     * Returns a register which can be overwritten: an empty one, else one whose values are all saved elsewhere
+     * or dead, else the one needing the fewest stores, which are then emitted.
+     * The pinned register holds an operand of the line, so it is never taken.
+     */
+    private int getRegister(BitVector liveAfter, int pinned) {
+        int best = -1;
+        int bestStores = Integer.MAX_VALUE;
+        for (int r = 0; r < REGISTER_DESCRIPTORS.length; r++) {
+            if (r == pinned) continue;
+            if (REGISTER_DESCRIPTORS[r].isEmpty()) return r;
+
+            int stores = storesNeeded(r, liveAfter);
+            if (stores < bestStores) {
+                best = r;
+                bestStores = stores;
+            }
+        }
+
+        BitVector held = REGISTER_DESCRIPTORS[best];
+        for (int variable = held.nextSetBit(0); variable >= 0; variable = held.nextSetBit(variable + 1)) {
+            if (needsStore(variable, best, liveAfter)) {
+                MACHINE_CODE.add("ST " + CODE.name(variable) + ", R" + best);
+                IN_MEMORY[variable] = true;
+            }
+        }
+        held.clear();
+        return best;
+    }
+
+    private boolean isFree(int register, BitVector liveAfter) {
+        return storesNeeded(register, liveAfter) == 0;
+    }
+
+    private int storesNeeded(int register, BitVector liveAfter) {
+        int stores = 0;
+        BitVector held = REGISTER_DESCRIPTORS[register];
+        for (int variable = held.nextSetBit(0); variable >= 0; variable = held.nextSetBit(variable + 1)) {
+            if (needsStore(variable, register, liveAfter)) stores++;
+        }
+        return stores;
+    }
+
+    // A variable must be saved before its register is taken if it is live and nothing else holds its value
+    private boolean needsStore(int variable, int register, BitVector liveAfter) {
+        if (IN_MEMORY[variable] || !liveAfter.get(variable)) return false;
+        for (int r = 0; r < REGISTER_DESCRIPTORS.length; r++) {
+            if (r != register && REGISTER_DESCRIPTORS[r].get(variable)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that the register now holds the new value of the variable, which is stale everywhere else.
+     * A copy shares the register with its source, any other result replaces the content of the register.
+     */
+    private void assignRegister(int variable, int register, boolean shared) {
+        for (BitVector held : REGISTER_DESCRIPTORS) {
+            held.clear(variable);
+        }
+        if (!shared) {
+            REGISTER_DESCRIPTORS[register].clear();
+        }
+        REGISTER_DESCRIPTORS[register].set(variable);
+        IN_MEMORY[variable] = false;
+    }
+
+    public void printCode() {
+        for (String line : MACHINE_CODE) {
+            m_writer.println(line);
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package analyzer.visitors;
 
-import analyzer.ast.*;
-import com.sun.org.apache.bcel.internal.generic.RET;
+import analyzer.dataflow.*;
+import analyzer.ir.Code;
+import analyzer.util.IntList;
 
 import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This Java code defines a visitor class called ReachingDefinitionsVisitor for a custom parser.
@@ -13,121 +13,70 @@ import java.util.stream.Collectors;
  * Dead-code elimination). The code includes implementations for various types of assignment statements,
  * such as direct assignment, unary assignment, and assignment with arithmetic operations.
  * */
-public class ReachingDefinitionsVisitor implements ParserVisitor {
-    private PrintWriter m_writer = null;
-    private final ArrayList<String> RETURNS = new ArrayList<>();
-    private ArrayList<CodeLine> CODE = new ArrayList<>();
+public class ReachingDefinitionsVisitor extends CodeVisitor {
+    // The definition made by each line, numbered by its line in the original code
+    private IntList DEFINITIONS;
+    // The KILL set of each line, shared by the lines assigning the same variable
+    private BitVector[] KILL;
+    private BitVector[] VALDEF_IN;
+    private BitVector[] VALDEF_OUT;
+
+    private final DataflowSolver m_solver;
 
     public ReachingDefinitionsVisitor(PrintWriter writer) {
-        m_writer = writer;
+        this(writer, new DataflowSolver());
     }
 
-    @Override
-    public Object visit(SimpleNode node, Object data) {
-        return null;
+    public ReachingDefinitionsVisitor(PrintWriter writer, DataflowSolver solver) {
+        super(writer);
+        m_solver = solver;
     }
 
-    @Override
-    public Object visit(ASTProgram node, Object data) {
-        node.childrenAccept(this, null);
+    public DataflowSolver getSolver() {
+        return m_solver;
+    }
 
+    @Override
+    protected void analyze() {
         computeReachingDefinitions();
         printCode();
 
         computeSingleAssignment();
         eliminateDeadCode();
         printOptimisedCode();
-
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTReturnStmt node, Object data) {
-        for (int i = 0; i < node.jjtGetNumChildren(); i++) {
-            RETURNS.add(((ASTIdentifier) node.jjtGetChild(i)).getValue());
-        }
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTBlock node, Object data) {
-        node.childrenAccept(this, null);
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTStmt node, Object data) {
-        node.childrenAccept(this, null);
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTAssignStmt node, Object data) {
-        String assign = (String) node.jjtGetChild(0).jjtAccept(this, null);
-        String left = (String) node.jjtGetChild(1).jjtAccept(this, null);
-        String right = (String) node.jjtGetChild(2).jjtAccept(this, null);
-        String op = node.getOp();
-
-        CODE.add(new CodeLine(op, assign, left, right));
-
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTAssignUnaryStmt node, Object data) {
-        String assign = (String) node.jjtGetChild(0).jjtAccept(this, null);
-        String right = (String) node.jjtGetChild(1).jjtAccept(this, null);
-
-        CODE.add(new CodeLine("-", assign,  right, ""));
-
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTAssignDirectStmt node, Object data) {
-        String assign = (String) node.jjtGetChild(0).jjtAccept(this, null);
-        String right = (String) node.jjtGetChild(1).jjtAccept(this, null);
-
-        CODE.add(new CodeLine("+", assign, right, ""));
-
-        return null;
-    }
-
-    @Override
-    public Object visit(ASTExpr node, Object data) {
-        return node.jjtGetChild(0).jjtAccept(this, null);
-    }
-
-    @Override
-    public Object visit(ASTIntValue node, Object data) {
-        return "#" + node.getValue();
-    }
-
-    @Override
-    public Object visit(ASTIdentifier node, Object data) {
-        return node.getValue();
     }
 
     /**
-     * Computes the GEN sets for each line of code.
+     * Computes the GEN sets for each line of code: line i makes the definition d_i.
      */
     private void computeGenSets() {
-        for (CodeLine code : CODE) {
-            code.GEN  = new Definition(code.op, code.ASSIGN, code.left, code.right);
+        DEFINITIONS = new IntList(CODE.size());
+        for (int i = 0; i < CODE.size(); i++) {
+            DEFINITIONS.add(i);
         }
     }
 
     /**
      * Computes the KILL sets for each line of code.
+     * All the lines assigning the same variable share one mask holding every definition of that variable.
+     * The mask also holds the line's own definition, which is harmless since GEN adds it back in the transfer.
      */
     private void computeKillSets() {
-        for (CodeLine currentLine : CODE) {
-            for (CodeLine compareLine : CODE) {
-                String assign = currentLine.ASSIGN;
-                if (compareLine != currentLine && assign.equals(compareLine.ASSIGN)){
-                    currentLine.KILL.add(compareLine.GEN);
-                    }
+        VariableIndex index = new VariableIndex(CODE);
+        BitVector[] definitionsByVariable = new BitVector[CODE.variableCount()];
+        KILL = new BitVector[CODE.size()];
+        for (int i = 0; i < CODE.size(); i++) {
+            int assign = CODE.dest(i);
+            BitVector mask = definitionsByVariable[assign];
+            if (mask == null) {
+                mask = new BitVector(CODE.size());
+                IntList definitions = index.definitions(assign);
+                for (int j = 0; j < definitions.size(); j++) {
+                    mask.set(DEFINITIONS.get(definitions.get(j)));
+                }
+                definitionsByVariable[assign] = mask;
             }
+            KILL[i] = mask;
         }
     }
 
@@ -137,101 +86,110 @@ public class ReachingDefinitionsVisitor implements ParserVisitor {
     private void computeReachingDefinitions() {
         computeGenSets();
         computeKillSets();
-        boolean changes = true;
-        Set<Definition> tmpOut = new HashSet<>();
-        while (changes) {
-            int i = 0;
-            changes = false;
-            for (CodeLine code : CODE) {
-                if(i != 0) {
-                    if (!code.ValDef_IN.containsAll(tmpOut)) {
-                        code.ValDef_IN.addAll(tmpOut);
-                        changes = true;
-                    }
-                }
-                code.ValDef_OUT.addAll(code.ValDef_IN);
-                code.ValDef_OUT.removeAll(code.KILL);
-                code.ValDef_OUT.add(code.GEN);
-                tmpOut = code.ValDef_OUT;
-                i++;
+        DataflowProblem problem = new DataflowProblem(Direction.FORWARD, Meet.UNION, CODE.size()) {
+            @Override
+            public boolean transfer(int node, BitVector input, BitVector output) {
+                return output.transfer(input, DEFINITIONS.get(node), KILL[node]);
             }
+        };
+
+        DataflowResult result = m_solver.solve(problem, new StraightLineGraph(CODE.size()));
+        VALDEF_IN = new BitVector[CODE.size()];
+        VALDEF_OUT = new BitVector[CODE.size()];
+        for (int i = 0; i < CODE.size(); i++) {
+            VALDEF_IN[i] = result.in(i);
+            VALDEF_OUT[i] = result.out(i);
         }
     }
 
     /**
      * Optimizes the code by eliminating unnecessary assignments.
+     * A renamed operand becomes the variable d_i, numbered like the other variables of the code.
      */
     public void computeSingleAssignment() {
-        int index = 0;
-        for(CodeLine line: CODE){
-            for(int i = index-1; i >= 0 ; i--){
+        for (int line = 0; line < CODE.size(); line++) {
+            for (int i = line - 1; i >= 0; i--) {
                 // ligne précédente
-                String assign = CODE.get(i).ASSIGN;
+                int assign = CODE.dest(i);
                 // si la ligne actuelle utlise une variable défini précédemment -> remplacement de la variable
-                if(line.right.equals(assign)) {
-                    line.right = CODE.get(i).GEN.identifier;
+                if (CODE.rightVariable(line) == assign) {
+                    CODE.setRightVariable(line, CODE.variable(identifierOf(DEFINITIONS.get(i))));
                 }
-                else if(line.left.equals(assign)){
-                    line.left = CODE.get(i).GEN.identifier;
+                else if (CODE.leftVariable(line) == assign) {
+                    CODE.setLeftVariable(line, CODE.variable(identifierOf(DEFINITIONS.get(i))));
                 }
             }
-            index++;
         }
     }
 
     /**
      * Eliminates dead code from the code.
+     * The live variables are counted rather than listed, a variable being live while its count is positive.
      */
     public void eliminateDeadCode() {
-        if(RETURNS.isEmpty()){
+        if (RETURNS.isEmpty()) {
             CODE.clear();
+            DEFINITIONS.clear();
             return;
         }
 
-        Queue<String> liveVars = new LinkedList<>(RETURNS);
-        ArrayList<CodeLine> optimizedCode = new ArrayList<>();
-            for(int i = CODE.size() - 1; i>= 0; i--){
-                if(liveVars.contains(CODE.get(i).ASSIGN)||liveVars.contains(CODE.get(i).GEN.identifier)){
-                    optimizedCode.add(CODE.get(i));
-                    liveVars.remove(CODE.get(i).ASSIGN);
-                    liveVars.remove(CODE.get(i).GEN.identifier);
-                    // condition -> ne pas ajouter des ints
-                    if (!CODE.get(i).right.isEmpty() && !CODE.get(i).right.contains("#")){
-                        liveVars.add(CODE.get(i).right);
-                    }
-                    if (!CODE.get(i).left.isEmpty() && !CODE.get(i).left.contains("#")){
-                        liveVars.add(CODE.get(i).left);
-                    }
+        int[] liveVars = new int[CODE.variableCount()];
+        for (int i = 0; i < RETURNS.size(); i++) {
+            liveVars[RETURNS.get(i)]++;
+        }
+        BitVector optimizedCode = new BitVector(CODE.size());
+        for (int i = CODE.size() - 1; i >= 0; i--) {
+            int assign = CODE.dest(i);
+            int identifier = CODE.idOf(identifierOf(DEFINITIONS.get(i)));
+            if (liveVars[assign] > 0 || (identifier != Code.NONE && liveVars[identifier] > 0)) {
+                optimizedCode.set(i);
+                remove(liveVars, assign);
+                if (identifier != Code.NONE) remove(liveVars, identifier);
+                // condition -> ne pas ajouter des ints
+                if (CODE.rightVariable(i) != Code.NONE) {
+                    liveVars[CODE.rightVariable(i)]++;
+                }
+                if (CODE.leftVariable(i) != Code.NONE) {
+                    liveVars[CODE.leftVariable(i)]++;
                 }
             }
-        Collections.reverse(optimizedCode);
-        CODE = optimizedCode;
+        }
+
+        IntList definitions = new IntList(optimizedCode.cardinality());
+        for (int i = optimizedCode.nextSetBit(0); i >= 0; i = optimizedCode.nextSetBit(i + 1)) {
+            definitions.add(DEFINITIONS.get(i));
+        }
+        DEFINITIONS = definitions;
+        CODE.retain(optimizedCode);
+    }
+
+    private static void remove(int[] liveVars, int variable) {
+        if (liveVars[variable] > 0) liveVars[variable]--;
+    }
+
+    private static String identifierOf(int definition) {
+        return "d_" + definition;
     }
 
 
     public void printCode() {
-        int i = 0;
-        for (CodeLine code : CODE) {
-            String line = code.ASSIGN + " = " + code.left;
-            if (!code.right.isEmpty() && !code.right.equals("#0")) {
-                line += " " + code.op + " " + code.right;
-            }
+        for (int i = 0; i < CODE.size(); i++) {
             m_writer.println("// Bloc " + i);
-            m_writer.println(line);
-            m_writer.println("// ValDef_IN  : " + sortedDefinitions(code.ValDef_IN));
-            m_writer.println("// ValDef_OUT : " + sortedDefinitions(code.ValDef_OUT));
+            m_writer.println(lineToString(i));
+            m_writer.println("// ValDef_IN  : " + sortedDefinitions(VALDEF_IN[i]));
+            m_writer.println("// ValDef_OUT : " + sortedDefinitions(VALDEF_OUT[i]));
             m_writer.println();
-            i++;
         }
     }
 
     public void printOptimisedCode() {
         m_writer.println("###############################################");
         m_writer.println("Optimised code:");
-        for (CodeLine code : CODE) {
-            String line =  code.GEN + ": " + code.ASSIGN + " = " + code.left;
-            if (!code.right.isEmpty()) {
-                line += " " + code.op + " " + code.right;
+        for (int i = 0; i < CODE.size(); i++) {
+            String line = identifierOf(DEFINITIONS.get(i)) + ": " + CODE.name(CODE.dest(i)) + " = "
+                    + CODE.leftOperand(i);
+            if (CODE.hasRight(i)) {
+                line += " " + Code.operatorOf(CODE.opcode(i)) + " " + CODE.rightOperand(i);
             }
             m_writer.println(line);
         }
@@ -239,74 +197,13 @@ public class ReachingDefinitionsVisitor implements ParserVisitor {
     }
 
 
-    // Helper function to convert a set of Definition objects to a sorted list of strings
-    private List<String> sortedDefinitions(Set<Definition> definitions) {
-        return definitions.stream()
-                .map(Definition::toString)
-                .sorted()
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * A struct to store the data of a code line.
-     */
-    public class CodeLine {
-        public String op;
-        public String ASSIGN;
-        public String left;
-        public String right;
-        public Definition GEN;
-        public Set<Definition> KILL;
-        public Set<Definition> ValDef_IN;
-        public Set<Definition> ValDef_OUT;
-
-        public CodeLine(String op, String ASSIGN, String left, String right) {
-            this.op = op;
-            this.ASSIGN = ASSIGN;
-            this.left = left;
-            this.right = right;
-            this.KILL = new HashSet<>();
-            this.ValDef_IN = new HashSet<>();
-            this.ValDef_OUT = new HashSet<>();
-        }
-    }
-    public int statementNumber = 0;
-
-    /**
-     * A struct to store the data of a definition.
-     */
-    public class Definition {
-        public String identifier;
-        public String op;
-        public String ASSIGN;
-        public String left;
-        public String right;
-
-        public Definition(String op, String ASSIGN, String left, String right) {
-            this.identifier = "d_" + statementNumber++;
-            this.op = op;
-            this.ASSIGN = ASSIGN;
-            this.left = left;
-            this.right = right;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (obj instanceof Definition) {
-                Definition other = (Definition) obj;
-                return this.identifier.equals(other.identifier);
-            }
-            return false;
-        }
-
-        @Override
-        public int hashCode() {
-            return identifier.hashCode();
-        }
-
-        @Override
-        public String toString() {
-            return identifier;
+    // Helper function to convert a set of definitions to a sorted list of strings
+    private List<String> sortedDefinitions(BitVector definitions) {
+        List<String> names = new ArrayList<>();
+        for (int i = definitions.nextSetBit(0); i >= 0; i = definitions.nextSetBit(i + 1)) {
+            names.add(identifierOf(i));
         }
+        Collections.sort(names);
+        return names;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package analyzer.visitors;
+
+import analyzer.dataflow.DataflowSolver;
+import analyzer.dataflow.Liveness;
+import analyzer.regalloc.Allocation;
+import analyzer.regalloc.GraphColoringAllocator;
+import analyzer.regalloc.RegisterAllocator;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This visitor assigns the variables of the code to the registers declared by NUMBER_OF_REGISTER_AVAILABLE,
+ * from the liveness of the code. Without declaration, every variable gets its own register.
+ * It prints the allocation as comments, then the code with every allocated variable replaced by its register.
+ * The spilled variables keep their name since they stay in memory.
+ * */
+public class RegisterAllocationVisitor extends CodeVisitor {
+    private final RegisterAllocator m_allocator;
+    private final DataflowSolver m_solver = new DataflowSolver();
+    private Allocation m_allocation;
+
+    public RegisterAllocationVisitor(PrintWriter writer) {
+        this(writer, new GraphColoringAllocator());
+    }
+
+    public RegisterAllocationVisitor(PrintWriter writer, RegisterAllocator allocator) {
+        super(writer);
+        m_allocator = allocator;
+    }
+
+    public Allocation getAllocation() {
+        return m_allocation;
+    }
+
+    @Override
+    protected void analyze() {
+        Liveness liveness = computeLiveness(m_solver);
+        int registers = REGISTERS >= 0 ? REGISTERS : CODE.variableCount();
+        m_allocation = m_allocator.allocate(liveness, registers);
+
+        printAllocation();
+        printCode();
+    }
+
+    // The name printed for each variable: its register, or its own name once spilled since it stays in memory
+    private String[] locations() {
+        String[] locations = new String[CODE.variableCount()];
+        for (int variable = 0; variable < locations.length; variable++) {
+            locations[variable] = m_allocation.isSpilled(variable)
+                    ? CODE.name(variable) : "R" + m_allocation.registerOf(variable);
+        }
+        return locations;
+    }
+
+    public void printAllocation() {
+        m_writer.println("// Registers : " + m_allocation.registerCount());
+        List<String> names = new ArrayList<>();
+        for (int variable = 0; variable < CODE.variableCount(); variable++) {
+            names.add(CODE.name(variable));
+        }
+        Collections.sort(names);
+        for (String var : names) {
+            int variable = CODE.idOf(var);
+            m_writer.println("// " + var + " -> "
+                    + (m_allocation.isSpilled(variable) ? "spilled" : "R" + m_allocation.registerOf(variable)));
+        }
+        m_writer.println("// Spilled   : " + m_allocation.spillCount());
+    }
+
+    public void printCode() {
+        String[] locations = locations();
+        for (int i = 0; i < CODE.size(); i++) {
+            m_writer.println(sourceOf(i, locations));
+        }
+        m_writer.println(returnSource(locations));
+    }
+}
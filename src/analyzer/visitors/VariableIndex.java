@@ -0,0 +1,55 @@
+package analyzer.visitors;
+
+import analyzer.ir.Code;
+import analyzer.util.IntList;
+
+/**
+ * Maps every variable of the code to the lines defining it and to the lines using it as an operand.
+ * Both tables are built in a single pass, so the KILL sets are lookups instead of a comparison of every pair of lines.
+ * A line using the same variable twice is only listed once.
+ */
+public class VariableIndex {
+    private static final IntList NONE = new IntList(1);
+
+    private final IntList[] m_definitions;
+    private final IntList[] m_uses;
+
+    public VariableIndex(Code code) {
+        m_definitions = new IntList[code.variableCount()];
+        m_uses = new IntList[code.variableCount()];
+        for (int i = 0; i < code.size(); i++) {
+            add(m_definitions, code.dest(i), i);
+            int left = code.leftVariable(i);
+            int right = code.rightVariable(i);
+            if (left != Code.NONE) {
+                add(m_uses, left, i);
+            }
+            if (right != Code.NONE && right != left) {
+                add(m_uses, right, i);
+            }
+        }
+    }
+
+    private static void add(IntList[] lists, int variable, int line) {
+        if (lists[variable] == null) {
+            lists[variable] = new IntList();
+        }
+        lists[variable].add(line);
+    }
+
+    /**
+     * The lines assigning the variable, in program order.
+     */
+    public IntList definitions(int variable) {
+        IntList lines = m_definitions[variable];
+        return lines != null ? lines : NONE;
+    }
+
+    /**
+     * The lines using the variable as an operand, in program order.
+     */
+    public IntList uses(int variable) {
+        IntList lines = m_uses[variable];
+        return lines != null ? lines : NONE;
+    }
+}
@@ -18,7 +18,25 @@ import analyzer.tests.*;
 
 @Suite.SuiteClasses({
         AvailableExpressionTest.class,
-        ReachingDefinitionTest.class
+        ReachingDefinitionTest.class,
+        ValueNumberingTest.class,
+        LivenessTest.class,
+        RegisterAllocationTest.class,
+        LinearScanTest.class,
+        PrintMachineCodeTest.class,
+        StreamingTest.class,
+        MappedInputTest.class,
+        BinaryCodeTest.class,
+        AsciiInputTest.class,
+        RecoveryTest.class,
+        ConstantPropagationTest.class,
+        CopyPropagationTest.class,
+        SsaTest.class,
+        GlobalValueNumberingTest.class,
+        AlgebraicSimplificationTest.class,
+        DataflowSolverTest.class,
+        ParserReuseTest.class,
+        SsaMachineCodeTest.class
 })
 
 public class TestSuite {
@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.opt.AlgebraicSimplification;
+import analyzer.visitors.PrintMachineCodeVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the AlgebraicSimplification pass. The code is rewritten by the pass, then translated by the
+ * PrintMachineCodeVisitor, so the multiplications and divisions left in the machine code can be checked.
+ */
+
+@RunWith(Parameterized.class)
+public class AlgebraicSimplificationTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/AlgebraicSimplificationTest/data";
+
+    public AlgebraicSimplificationTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new PrintMachineCodeVisitor(m_output).addPass(new AlgebraicSimplification());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
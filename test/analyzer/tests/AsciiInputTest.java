@@ -0,0 +1,50 @@
+package analyzer.tests;
+
+import analyzer.ast.ParserVisitor;
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Description: This test the ASCII input path. The files are pure ASCII, so MappedCharStream.open() reads them with
+ * an AsciiCharStream and the parser tokenizes them with the AsciiTokenManager. The tokens must be the ones of the
+ * generated token manager, so the same files are also read by a JavaCharStream and both must give the expected
+ * results of the LivenessVisitor. Besides the files of LivenessTest, the fixtures of this test hold the tokens the
+ * AsciiTokenManager gives back to the generated one: the comments and the register header, and the integers with
+ * a leading zero, whose malformed statements are skipped and reported after the output.
+ */
+
+@RunWith(Parameterized.class)
+public class AsciiInputTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/AsciiInputTest/data";
+    private static String m_liveness_test_suite_path = "./test-suite/LivenessTest/data";
+
+    public AsciiInputTest(File file) {
+        super(file, "./test-suite/AsciiInputTest/result/");
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output);
+        openRecoverAndAssert(algorithm);
+    }
+
+    @Test
+    public void generated() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output);
+        recoverAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        Collection<Object[]> files = getFiles(m_liveness_test_suite_path);
+        files.addAll(getFiles(m_test_suite_path));
+        return files;
+    }
+
+}
@@ -1,18 +1,28 @@
 package analyzer.tests;
 
+import analyzer.ast.Diagnostic;
+import analyzer.ast.JavaCharStream;
+import analyzer.ast.MappedCharStream;
+import analyzer.ast.Parser;
 import analyzer.ast.ParserVisitor;
+import analyzer.ir.BinaryCodeWriter;
+import analyzer.visitors.CodeVisitor;
 import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.Before;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.PrintWriter;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.Assert.fail;
 
@@ -22,7 +32,7 @@ import static org.junit.Assert.fail;
  * - The test will be run on a visitor // TODO:: Multiples visitors?
  * - Execute the test for every file present in test-suite/@TestName/data
  * - Compare the output with a file present in test-suite/@TestName/expected
- * - Print the result in test-suite/@TestName/result for debug purpose
+ * - Print the result in test-suite/@TestName/result for debug purpose, or in the directory given to the constructor
  *
  * @author Nicolas Cloutier
  * @author Quentin Guidée
@@ -30,13 +40,21 @@ import static org.junit.Assert.fail;
  */
 public class BaseTest {
     private final File m_file;
+    private final String m_resultPath;
 
     protected FileInputStream m_input;
     protected PrintWriter m_output;
     protected String m_expected;
 
     public BaseTest(File file) {
+        this(file, null);
+    }
+
+    // A test running on the files of another test prints its results in its own directory, so it does not
+    // overwrite the results of that test
+    public BaseTest(File file, String resultPath) {
         m_file = file;
+        m_resultPath = resultPath;
     }
 
     // Get all the files from the base path and insert it in a collection
@@ -56,10 +74,11 @@ public class BaseTest {
         String name = m_file.getName();
         String path = m_file.getParentFile().getParent();
 
+        String resultDirectory = m_resultPath != null ? m_resultPath : path + "/result/";
         Path expectedPath = Paths.get(path + "/expected/" + name);
-        Path resultPath = Paths.get(path + "/result/" + name);
+        Path resultPath = Paths.get(resultDirectory, name);
 
-        Files.createDirectories(Paths.get(path + "/result/"));
+        Files.createDirectories(Paths.get(resultDirectory));
 
         Assume.assumeTrue(String.format("Expected %s does not exists", expectedPath), Files.exists(expectedPath));
 
@@ -74,9 +93,74 @@ public class BaseTest {
     // print the output in the output file and assert if it's matching
     // the expect file
     public void runAndAssert(ParserVisitor algorithm) throws Exception {
+        runAndAssert(() -> analyzer.Main.Run(algorithm, m_input, m_output));
+    }
+
+    // Same as runAndAssert, but the program is read by the streaming parse mode
+    public void streamAndAssert(CodeVisitor algorithm) throws Exception {
+        runAndAssert(() -> analyzer.Main.Stream(algorithm, m_input, m_output));
+    }
+
+    // Same as runAndAssert, but the file is mapped in memory and read by a MappedCharStream
+    public void mapAndAssert(ParserVisitor algorithm) throws Exception {
+        runAndAssert(() -> analyzer.Main.Run(algorithm, new MappedCharStream(m_file.toPath()), m_output));
+    }
+
+    // Same as runAndAssert, but the program is written to the .cib format and the visitor reads it back from there
+    public void loadAndAssert(CodeVisitor algorithm) throws Exception {
+        runAndAssert(() -> {
+            ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            Parser.ParseCode(m_input, new BinaryCodeWriter(binary));
+            analyzer.Main.Load(algorithm, Channels.newChannel(new ByteArrayInputStream(binary.toByteArray())), m_output);
+        });
+    }
+
+    // Same as runAndAssert, but the malformed statements are skipped: the diagnostics are printed after the output
+    public void recoverAndAssert(ParserVisitor algorithm) throws Exception {
+        recoverAndAssert(diagnostics -> analyzer.Main.Run(algorithm, new JavaCharStream(m_input), m_output, diagnostics));
+    }
+
+    // Same as recoverAndAssert, but the program is read by the streaming parse mode
+    public void streamRecoverAndAssert(CodeVisitor algorithm) throws Exception {
+        recoverAndAssert(diagnostics ->
+                analyzer.Main.Stream(algorithm, new JavaCharStream(m_input), m_output, diagnostics));
+    }
+
+    // Same as recoverAndAssert, but the file is read by the stream chosen by MappedCharStream.open(), as Main does:
+    // a pure ASCII file is scanned as bytes
+    public void openRecoverAndAssert(ParserVisitor algorithm) throws Exception {
+        recoverAndAssert(diagnostics ->
+                analyzer.Main.Run(algorithm, MappedCharStream.open(m_file.toPath()), m_output, diagnostics));
+    }
+
+    // Same as openRecoverAndAssert, but the program is read by the streaming parse mode
+    public void openStreamRecoverAndAssert(CodeVisitor algorithm) throws Exception {
+        recoverAndAssert(diagnostics ->
+                analyzer.Main.Stream(algorithm, MappedCharStream.open(m_file.toPath()), m_output, diagnostics));
+    }
+
+    private void recoverAndAssert(Recovery recovery) throws Exception {
+        runAndAssert(() -> {
+            List<Diagnostic> diagnostics = new ArrayList<>();
+            recovery.run(diagnostics);
+            for (Diagnostic diagnostic : diagnostics) {
+                m_output.println(diagnostic);
+            }
+        });
+    }
+
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    private interface Recovery {
+        void run(List<Diagnostic> diagnostics) throws Exception;
+    }
+
+    private void runAndAssert(Run run) throws Exception {
         // Run
         try {
-            analyzer.Main.Run(algorithm, m_input, m_output);
+            run.run();
             m_output.flush();
         }
 
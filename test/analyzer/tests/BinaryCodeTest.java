@@ -0,0 +1,38 @@
+package analyzer.tests;
+
+import analyzer.visitors.CodeVisitor;
+import analyzer.visitors.RegisterAllocationVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Description: This test the precompiled .cib format. A program written by the BinaryCodeWriter and replayed by the
+ * BinaryCodeReader must give the visitor the code of the source, so it runs the RegisterAllocationVisitor on the
+ * files of RegisterAllocationTest and expects the same results.
+ */
+
+@RunWith(Parameterized.class)
+public class BinaryCodeTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/RegisterAllocationTest/data";
+
+    public BinaryCodeTest(File file) {
+        super(file, "./test-suite/BinaryCodeTest/result/");
+    }
+
+    @Test
+    public void run() throws Exception {
+        CodeVisitor algorithm = new RegisterAllocationVisitor(m_output);
+        loadAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
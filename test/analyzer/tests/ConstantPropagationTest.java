@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.opt.ConstantPropagation;
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the ConstantPropagation pass. The code is rewritten by the pass, then printed back by the
+ * LivenessVisitor with every operand, so a line left unfolded shows its constants.
+ */
+
+@RunWith(Parameterized.class)
+public class ConstantPropagationTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/ConstantPropagationTest/data";
+
+    public ConstantPropagationTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output).addPass(new ConstantPropagation());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.opt.CopyPropagation;
+import analyzer.visitors.ReachingDefinitionsVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the CopyPropagation pass. The code is rewritten by the pass, then analysed by the
+ * ReachingDefinitionsVisitor, whose dead code elimination removes the copies left without use.
+ */
+
+@RunWith(Parameterized.class)
+public class CopyPropagationTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/CopyPropagationTest/data";
+
+    public CopyPropagationTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new ReachingDefinitionsVisitor(m_output).addPass(new CopyPropagation());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
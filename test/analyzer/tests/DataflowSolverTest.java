@@ -0,0 +1,151 @@
+package analyzer.tests;
+
+import analyzer.dataflow.*;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Description: This test the two strategies of the DataflowSolver. Both must reach the same fixed point, and the
+ * worklist must not evaluate more transfer functions than the round-robin passes. The counts are the ones of
+ * small problems solved by hand.
+ */
+
+public class DataflowSolverTest {
+
+    // Liveness over five lines: a = ..., b = a, c = b, a = c, return a. The variables are numbered a, b, c.
+    private static GenKillProblem straightLine() {
+        GenKillProblem problem = new GenKillProblem(Direction.BACKWARD, Meet.UNION, 3, 5) {
+            @Override
+            public void boundary(BitVector value) {
+                value.set(0);
+            }
+        };
+        int[] defs = {0, 1, 2, 0, -1};
+        int[] uses = {-1, 0, 1, 2, 0};
+        for (int node = 0; node < defs.length; node++) {
+            BitVector kill = new BitVector(3);
+            if (defs[node] >= 0) kill.set(defs[node]);
+            problem.setKill(node, kill);
+            if (uses[node] >= 0) problem.gen(node).set(uses[node]);
+        }
+        return problem;
+    }
+
+    // Reaching definitions over a loop 0 -> 1 -> 2 -> 3 -> 1, 3 -> 4, where node n generates the definition n and
+    // nodes 1 and 3 define the same variable
+    private static GenKillProblem loop() {
+        GenKillProblem problem = new GenKillProblem(Direction.FORWARD, Meet.UNION, 5, 5);
+        for (int node = 0; node < 5; node++) {
+            problem.gen(node).set(node);
+        }
+        BitVector kill = new BitVector(5);
+        kill.set(1);
+        kill.set(3);
+        problem.setKill(1, kill);
+        problem.setKill(3, kill);
+        return problem;
+    }
+
+    private static final FlowGraph LOOP = new FlowGraph() {
+        private final int[][] successors = {{1}, {2}, {3}, {1, 4}, {}};
+        private final int[][] predecessors = {{}, {0, 3}, {1}, {2}, {3}};
+
+        @Override
+        public int size() {
+            return 5;
+        }
+
+        @Override
+        public int successorCount(int node) {
+            return successors[node].length;
+        }
+
+        @Override
+        public int successor(int node, int i) {
+            return successors[node][i];
+        }
+
+        @Override
+        public int predecessorCount(int node) {
+            return predecessors[node].length;
+        }
+
+        @Override
+        public int predecessor(int node, int i) {
+            return predecessors[node][i];
+        }
+    };
+
+    private static void assertSameResult(DataflowResult expected, DataflowResult actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int node = 0; node < expected.size(); node++) {
+            assertEquals("IN of node " + node, expected.in(node), actual.in(node));
+            assertEquals("OUT of node " + node, expected.out(node), actual.out(node));
+        }
+    }
+
+    @Test
+    public void straightLine_sameResult() {
+        DataflowSolver worklist = new DataflowSolver(DataflowSolver.Strategy.WORKLIST);
+        DataflowSolver roundRobin = new DataflowSolver(DataflowSolver.Strategy.ROUND_ROBIN);
+        FlowGraph graph = new StraightLineGraph(5);
+
+        DataflowResult expected = roundRobin.solve(straightLine(), graph);
+        assertSameResult(expected, worklist.solve(straightLine(), graph));
+
+        BitVector a = new BitVector(3);
+        a.set(0);
+        assertEquals(new BitVector(3), expected.in(0));
+        assertEquals(a, expected.out(0));
+        assertEquals(a, expected.in(4));
+        assertEquals(a, expected.out(4));
+    }
+
+    @Test
+    public void straightLine_evaluations() {
+        DataflowSolver worklist = new DataflowSolver(DataflowSolver.Strategy.WORKLIST);
+        DataflowSolver roundRobin = new DataflowSolver(DataflowSolver.Strategy.ROUND_ROBIN);
+        FlowGraph graph = new StraightLineGraph(5);
+        worklist.solve(straightLine(), graph);
+        roundRobin.solve(straightLine(), graph);
+
+        // In the direction of the analysis every node is evaluated once, the round robin needs a pass to see that
+        // nothing changed
+        assertEquals(5, worklist.getEvaluations());
+        assertEquals(0, worklist.getPasses());
+        assertEquals(10, roundRobin.getEvaluations());
+        assertEquals(2, roundRobin.getPasses());
+    }
+
+    @Test
+    public void loop_sameResult() {
+        DataflowSolver worklist = new DataflowSolver(DataflowSolver.Strategy.WORKLIST);
+        DataflowSolver roundRobin = new DataflowSolver(DataflowSolver.Strategy.ROUND_ROBIN);
+
+        DataflowResult expected = roundRobin.solve(loop(), LOOP);
+        assertSameResult(expected, worklist.solve(loop(), LOOP));
+
+        // The definitions 2 and 3 reach the head of the loop through the back edge
+        BitVector in = new BitVector(5);
+        in.set(0);
+        in.set(2);
+        in.set(3);
+        assertEquals(in, expected.in(1));
+    }
+
+    @Test
+    public void loop_evaluations() {
+        DataflowSolver worklist = new DataflowSolver(DataflowSolver.Strategy.WORKLIST);
+        DataflowSolver roundRobin = new DataflowSolver(DataflowSolver.Strategy.ROUND_ROBIN);
+        worklist.solve(loop(), LOOP);
+        roundRobin.solve(loop(), LOOP);
+
+        // After the first pass, the worklist only evaluates the head of the loop again and the node after it, whose
+        // output did not change. The round robin passes over every node until a pass changes nothing.
+        assertEquals(7, worklist.getEvaluations());
+        assertEquals(15, roundRobin.getEvaluations());
+        assertEquals(3, roundRobin.getPasses());
+        assertTrue(worklist.getEvaluations() <= roundRobin.getEvaluations());
+    }
+}
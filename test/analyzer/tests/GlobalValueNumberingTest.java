@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.opt.GlobalValueNumbering;
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the GlobalValueNumbering pass. The code is rewritten by the pass, then printed back by the
+ * LivenessVisitor with every operand, so a negation is told apart from a copy.
+ */
+
+@RunWith(Parameterized.class)
+public class GlobalValueNumberingTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/GlobalValueNumberingTest/data";
+
+    public GlobalValueNumberingTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output).addPass(new GlobalValueNumbering());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.regalloc.LinearScanAllocator;
+import analyzer.visitors.RegisterAllocationVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the RegisterAllocationVisitor with the linear-scan allocator. It prints the register of
+ * every variable and the code using the registers.
+ */
+
+@RunWith(Parameterized.class)
+public class LinearScanTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/LinearScanTest/data";
+
+    public LinearScanTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new RegisterAllocationVisitor(m_output, new LinearScanAllocator());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
@@ -0,0 +1,37 @@
+package analyzer.tests;
+
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the LivenessVisitor. The code is printed back with the live variables of each line.
+ */
+
+@RunWith(Parameterized.class)
+public class LivenessTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/LivenessTest/data";
+
+    public LivenessTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output);
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
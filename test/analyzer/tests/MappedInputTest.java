@@ -0,0 +1,38 @@
+package analyzer.tests;
+
+import analyzer.ast.ParserVisitor;
+import analyzer.visitors.ReachingDefinitionsVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Description: This test the input read from a file mapped in memory. The MappedCharStream must give the parser
+ * the same characters as the JavaCharStream, so it runs the ReachingDefinitionsVisitor on the files of
+ * ReachingDefinitionTest and expects the same results.
+ */
+
+@RunWith(Parameterized.class)
+public class MappedInputTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/ReachingDefinitionTest/data";
+
+    public MappedInputTest(File file) {
+        super(file, "./test-suite/MappedInputTest/result/");
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new ReachingDefinitionsVisitor(m_output);
+        mapAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
@@ -0,0 +1,63 @@
+package analyzer.tests;
+
+import analyzer.ast.ParseException;
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+
+import java.io.*;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Description: This test the parser kept by every thread. The files of the LivenessTest are parsed one after the
+ * other on the same thread, from InputStreams as a batch does, each one right after a malformed input stopped a
+ * strict parse, and their output must still be the expected one in both parse modes.
+ */
+
+public class ParserReuseTest {
+
+    private static String m_test_suite_path = "./test-suite/LivenessTest";
+
+    private static final String MALFORMED = "t0 = a + b\nt1 = = t0\n\nreturn t1\n";
+
+    private interface Parse {
+        void run(InputStream input, PrintWriter output) throws Exception;
+    }
+
+    private static void assertBatch(Parse parse) throws Exception {
+        File[] files = new File(m_test_suite_path + "/data").listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 1);
+        java.util.Arrays.sort(files);
+        for (int pass = 0; pass < 2; pass++) {
+            for (File file : files) {
+                try {
+                    InputStream malformed = new ByteArrayInputStream(MALFORMED.getBytes("UTF-8"));
+                    parse.run(malformed, new PrintWriter(new StringWriter()));
+                    fail("The malformed input was parsed");
+                } catch (ParseException e) {
+                    // The parser of the thread must be ready for the next input all the same
+                }
+
+                StringWriter result = new StringWriter();
+                try (InputStream input = new FileInputStream(file)) {
+                    parse.run(input, new PrintWriter(result));
+                }
+                File expected = new File(m_test_suite_path + "/expected/" + file.getName());
+                String expectedOutput = new String(Files.readAllBytes(expected.toPath())).replaceAll("\\r", "");
+                assertEquals(file.getName(), expectedOutput, result.toString());
+            }
+        }
+    }
+
+    @Test
+    public void tree() throws Exception {
+        assertBatch((input, output) -> analyzer.Main.Run(new LivenessVisitor(output), input, output));
+    }
+
+    @Test
+    public void stream() throws Exception {
+        assertBatch((input, output) -> analyzer.Main.Stream(new LivenessVisitor(output), input, output));
+    }
+}
@@ -0,0 +1,54 @@
+package analyzer.tests;
+
+import analyzer.ast.ParserVisitor;
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Description: This test the recovering parse. Every file has malformed statements, the parse must skip them,
+ * the LivenessVisitor analyzes the other statements and the errors are printed after its output. The same output
+ * is expected whether the program is read as a tree or streamed, and through a JavaCharStream or the stream
+ * MappedCharStream.open() chooses.
+ */
+
+@RunWith(Parameterized.class)
+public class RecoveryTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/RecoveryTest/data";
+
+    public RecoveryTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output);
+        recoverAndAssert(algorithm);
+    }
+
+    @Test
+    public void stream() throws Exception {
+        streamRecoverAndAssert(new LivenessVisitor(m_output));
+    }
+
+    @Test
+    public void open() throws Exception {
+        openRecoverAndAssert(new LivenessVisitor(m_output));
+    }
+
+    @Test
+    public void openStream() throws Exception {
+        openStreamRecoverAndAssert(new LivenessVisitor(m_output));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
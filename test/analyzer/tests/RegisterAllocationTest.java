@@ -0,0 +1,37 @@
+package analyzer.tests;
+
+import analyzer.visitors.RegisterAllocationVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the RegisterAllocationVisitor. It prints the register of every variable and the code using the registers.
+ */
+
+@RunWith(Parameterized.class)
+public class RegisterAllocationTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/RegisterAllocationTest/data";
+
+    public RegisterAllocationTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new RegisterAllocationVisitor(m_output);
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
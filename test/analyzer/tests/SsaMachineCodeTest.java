@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.opt.SsaConstruction;
+import analyzer.visitors.PrintMachineCodeVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the machine code of a program in SSA form. The registers do not hold every version, so
+ * some are spilled to memory under their names, which the simulator must read as identifiers.
+ */
+
+@RunWith(Parameterized.class)
+public class SsaMachineCodeTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/SsaMachineCodeTest/data";
+
+    public SsaMachineCodeTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new PrintMachineCodeVisitor(m_output).addPass(new SsaConstruction());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
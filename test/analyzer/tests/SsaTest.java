@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.opt.SsaConstruction;
+import analyzer.visitors.LivenessVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the SsaConstruction pass. The code in SSA form is printed back by the LivenessVisitor,
+ * with the live ranges of the versions of every variable.
+ */
+
+@RunWith(Parameterized.class)
+public class SsaTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/SsaTest/data";
+
+    public SsaTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new LivenessVisitor(m_output).addPass(new SsaConstruction());
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
@@ -0,0 +1,38 @@
+package analyzer.tests;
+
+import analyzer.visitors.AvailableExpressionVisitor;
+import analyzer.visitors.CodeVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Description: This test the streaming parse mode. The statements pushed by the parser must give the visitor
+ * exactly the code it gets from the tree, so it runs the AvailableExpressionVisitor on the files of
+ * AvailableExpressionTest and expects the same results.
+ */
+
+@RunWith(Parameterized.class)
+public class StreamingTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/AvailableExpressionTest/data";
+
+    public StreamingTest(File file) {
+        super(file, "./test-suite/StreamingTest/result/");
+    }
+
+    @Test
+    public void run() throws Exception {
+        CodeVisitor algorithm = new AvailableExpressionVisitor(m_output);
+        streamAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}
@@ -0,0 +1,39 @@
+package analyzer.tests;
+
+import analyzer.dataflow.DataflowSolver;
+import analyzer.visitors.AvailableExpressionVisitor;
+import org.junit.*;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.*;
+import java.util.*;
+
+import analyzer.ast.ParserVisitor;
+
+/**
+ * Description: This test the AvailableExpressionVisitor when it eliminates the common expressions with a local
+ * value numbering instead of the available expressions.
+ */
+
+@RunWith(Parameterized.class)
+public class ValueNumberingTest extends BaseTest {
+
+    private static String m_test_suite_path = "./test-suite/ValueNumberingTest/data";
+
+    public ValueNumberingTest(File file) {
+        super(file);
+    }
+
+    @Test
+    public void run() throws Exception {
+        ParserVisitor algorithm = new AvailableExpressionVisitor(m_output, new DataflowSolver(), true);
+        runAndAssert(algorithm);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getFiles() {
+        return getFiles(m_test_suite_path);
+    }
+
+}